@@ -0,0 +1,225 @@
+package de.mineking.commandutils.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@SupportedAnnotationTypes(CommandProcessor.MINECRAFT_COMMAND)
+public class CommandProcessor extends AbstractProcessor {
+	public static final String MINECRAFT_COMMAND = "de.mineking.commandutils.annotation.MinecraftCommand";
+	public static final String COMMAND_METHOD = "de.mineking.commandutils.annotation.CommandMethod";
+	public static final String PERMISSION = "de.mineking.commandutils.annotation.Permission";
+	public static final String AUTOCOMPLETE = "de.mineking.commandutils.options.Autocomplete";
+	public static final String OPTION = "de.mineking.commandutils.options.Option";
+	public static final String OPTION_ARRAY = "de.mineking.commandutils.options.OptionArray";
+
+	public static final String SUFFIX = "_CommandBinder";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+		for(var annotation : annotations) {
+			for(var element : round.getElementsAnnotatedWith(annotation)) {
+				if(element instanceof TypeElement type) generate(type);
+			}
+		}
+
+		return false;
+	}
+
+	private void generate(TypeElement type) {
+		if(!isAccessible(type)) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Command is private, no binder is generated and its methods are scanned at registration", type);
+			return;
+		}
+
+		var members = processingEnv.getElementUtils().getAllMembers(type);
+
+		var methods = ElementFilter.methodsIn(members).stream()
+				.filter(m -> m.getModifiers().contains(Modifier.PUBLIC))
+				.toList();
+
+		var commands = methods.stream()
+				.filter(m -> getAnnotation(m, COMMAND_METHOD) != null)
+				.toList();
+
+		if(commands.size() > 1) processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Multiple @CommandMethod methods, only the first one is used", type);
+
+		var command = commands.isEmpty() ? null : commands.get(0);
+
+		var autocomplete = new LinkedHashMap<String, ExecutableElement>();
+		for(var m : methods) {
+			var a = getAnnotation(m, AUTOCOMPLETE);
+			if(a != null) autocomplete.put(getValue(a, "value"), m);
+		}
+
+		var subcommands = ElementFilter.typesIn(members).stream()
+				.filter(t -> t.getModifiers().contains(Modifier.PUBLIC))
+				.filter(t -> getAnnotation(t, MINECRAFT_COMMAND) != null)
+				.toList();
+
+		validate(type, command, autocomplete);
+
+		var elements = processingEnv.getElementUtils();
+		var pkg = elements.getPackageOf(type).getQualifiedName().toString();
+		var binary = elements.getBinaryName(type).toString();
+		var name = (pkg.isEmpty() ? binary : binary.substring(pkg.length() + 1)) + SUFFIX;
+
+		var target = type.getQualifiedName().toString();
+
+		var code = new StringBuilder();
+		if(!pkg.isEmpty()) code.append("package ").append(pkg).append(";\n\n");
+
+		code.append("@javax.annotation.processing.Generated(\"").append(CommandProcessor.class.getName()).append("\")\n");
+		code.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		code.append("public final class ").append(name).append(" implements de.mineking.commandutils.CommandBinder {\n");
+
+		code.append("\t@Override\n");
+		code.append("\tpublic java.lang.reflect.Method getCommandMethod() throws ReflectiveOperationException {\n");
+		code.append("\t\treturn ").append(command == null ? "null" : lookup(target, command)).append(";\n");
+		code.append("\t}\n\n");
+
+		code.append("\t@Override\n");
+		code.append("\tpublic java.util.Map<String, java.lang.reflect.Method> getAutocompleteMethods() throws ReflectiveOperationException {\n");
+		code.append("\t\treturn java.util.Map.ofEntries(");
+		code.append(autocomplete.entrySet().stream()
+				.map(e -> "\n\t\t\t\tjava.util.Map.entry(" + literal(e.getKey()) + ", " + lookup(target, e.getValue()) + ")")
+				.collect(Collectors.joining(","))
+		);
+		code.append("\n\t\t);\n");
+		code.append("\t}\n\n");
+
+		code.append("\t@Override\n");
+		code.append("\tpublic java.util.List<Class<?>> getSubcommands() {\n");
+		code.append("\t\treturn java.util.List.of(");
+		code.append(subcommands.stream()
+				.map(t -> t.getQualifiedName() + ".class")
+				.collect(Collectors.joining(", "))
+		);
+		code.append(");\n");
+		code.append("\t}\n\n");
+
+		code.append("\t@Override\n");
+		code.append("\tpublic de.mineking.commandutils.CommandInvoker getInvoker() {\n");
+		code.append("\t\treturn ").append(command == null ? "null" : invoker(target, command)).append(";\n");
+		code.append("\t}\n\n");
+
+		code.append("\t@Override\n");
+		code.append("\tpublic de.mineking.commandutils.CommandInvoker getAutocompleteInvoker(String option) {\n");
+		code.append("\t\treturn switch(option) {\n");
+		for(var e : autocomplete.entrySet()) {
+			code.append("\t\t\tcase ").append(literal(e.getKey())).append(" -> ").append(invoker(target, e.getValue())).append(";\n");
+		}
+		code.append("\t\t\tdefault -> null;\n");
+		code.append("\t\t};\n");
+		code.append("\t}\n");
+
+		code.append("}\n");
+
+		try(var writer = processingEnv.getFiler().createSourceFile((pkg.isEmpty() ? "" : pkg + ".") + name, type).openWriter()) {
+			writer.write(code.toString());
+		} catch(IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write command binder: " + e.getMessage(), type);
+		}
+	}
+
+	private void validate(TypeElement type, ExecutableElement command, Map<String, ExecutableElement> autocomplete) {
+		if(command == null) return;
+
+		var names = new HashSet<String>();
+
+		for(var p : command.getParameters()) {
+			var option = getAnnotation(p, OPTION);
+
+			if(option == null) {
+				if(getAnnotation(p, OPTION_ARRAY) != null) processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@OptionArray requires @Option", p);
+				continue;
+			}
+
+			names.add(p.getSimpleName().toString());
+
+			var permission = getAnnotation(p, PERMISSION);
+			if(permission != null && getValue(permission, "value").isEmpty()) processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Empty permission", p);
+		}
+
+		for(var e : autocomplete.entrySet()) {
+			if(!names.contains(e.getKey())) processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@Autocomplete '" + e.getKey() + "' does not match any option parameter of the command method", e.getValue());
+		}
+
+		var permission = getAnnotation(type, PERMISSION);
+		if(permission != null && getValue(permission, "value").isEmpty()) processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Empty permission", type);
+	}
+
+	private String lookup(String target, ExecutableElement method) {
+		return target + ".class.getMethod(" + literal(method.getSimpleName().toString()) + method.getParameters().stream()
+				.map(p -> ", " + typeName(p.asType()) + ".class")
+				.collect(Collectors.joining()) + ")";
+	}
+
+	private String invoker(String target, ExecutableElement method) {
+		var params = method.getParameters();
+		var args = new StringJoiner(", ");
+
+		for(int i = 0; i < params.size(); i++) args.add("(" + typeName(params.get(i).asType()) + ") params[" + i + "]");
+
+		var call = (method.getModifiers().contains(Modifier.STATIC) ? target : "((" + target + ") instance)") + "." + method.getSimpleName() + "(" + args + ")";
+
+		return "de.mineking.commandutils.CommandInvoker.compiled((instance, params) -> " + (method.getReturnType().getKind() == TypeKind.VOID
+				? "{\n\t\t\t" + call + ";\n\t\t\treturn null;\n\t\t})"
+				: call + ")"
+		);
+	}
+
+	private String typeName(TypeMirror type) {
+		var erased = processingEnv.getTypeUtils().erasure(type);
+
+		if(erased.getKind().isPrimitive()) return erased.getKind().name().toLowerCase(Locale.ROOT);
+		if(erased instanceof ArrayType array) return typeName(array.getComponentType()) + "[]";
+		if(erased instanceof DeclaredType declared) return ((TypeElement) declared.asElement()).getQualifiedName().toString();
+
+		return "java.lang.Object";
+	}
+
+	private static boolean isAccessible(Element element) {
+		for(var e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+			if(e.getModifiers().contains(Modifier.PRIVATE)) return false;
+		}
+
+		return true;
+	}
+
+	private static AnnotationMirror getAnnotation(Element element, String name) {
+		for(var a : element.getAnnotationMirrors()) {
+			if(((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(name)) return a;
+		}
+
+		return null;
+	}
+
+	private static String getValue(AnnotationMirror annotation, String key) {
+		for(var e : annotation.getElementValues().entrySet()) {
+			if(e.getKey().getSimpleName().contentEquals(key)) return String.valueOf(e.getValue().getValue());
+		}
+
+		return "";
+	}
+
+	private static String literal(String value) {
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+}
@@ -0,0 +1,85 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.annotation.CommandMethod;
+import de.mineking.commandutils.annotation.MinecraftCommand;
+import de.mineking.commandutils.options.IOptionParser;
+import de.mineking.commandutils.options.Option;
+import de.mineking.commandutils.options.OptionArray;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Parameter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArrayParseBenchmark {
+	@Param({"1", "8", "32"})
+	public int maxCount;
+
+	private CommandArguments args;
+	private Parameter array;
+	private Parameter list;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		Stubs.plugin();
+
+		var type = switch(maxCount) {
+			case 1 -> Single.class;
+			case 8 -> Eight.class;
+			case 32 -> ThirtyTwo.class;
+			default -> throw new IllegalArgumentException();
+		};
+
+		AnnotatedCommand.get(type, (s, a) -> null);
+
+		var method = type.getMethod("run", Player.class, String[].class, List.class);
+		array = method.getParameters()[1];
+		list = method.getParameters()[2];
+
+		var values = new LinkedHashMap<String, Object>();
+
+		for(int i = 1; i <= maxCount; i++) {
+			values.put("array" + i, "value" + i);
+			values.put("list" + i, i);
+		}
+
+		args = Stubs.arguments(values);
+	}
+
+	@Benchmark
+	public Object array() {
+		return IOptionParser.ARRAY.parse(args, "array", array.getParameterizedType(), array, array.getAnnotation(Option.class));
+	}
+
+	@Benchmark
+	public Object list() {
+		return IOptionParser.ARRAY.parse(args, "list", list.getParameterizedType(), list, list.getAnnotation(Option.class));
+	}
+
+	@MinecraftCommand(name = "single")
+	public static class Single {
+		@CommandMethod
+		public void run(Player sender, @Option(name = "array") @OptionArray(minCount = 1, maxCount = 1) String[] array, @Option(name = "list") @OptionArray(minCount = 1, maxCount = 1) List<Integer> list) {}
+	}
+
+	@MinecraftCommand(name = "eight")
+	public static class Eight {
+		@CommandMethod
+		public void run(Player sender, @Option(name = "array") @OptionArray(minCount = 1, maxCount = 8) String[] array, @Option(name = "list") @OptionArray(minCount = 1, maxCount = 8) List<Integer> list) {}
+	}
+
+	@MinecraftCommand(name = "thirtytwo")
+	public static class ThirtyTwo {
+		@CommandMethod
+		public void run(Player sender, @Option(name = "array") @OptionArray(minCount = 1, maxCount = 32) String[] array, @Option(name = "list") @OptionArray(minCount = 1, maxCount = 32) List<Integer> list) {}
+	}
+}
@@ -0,0 +1,87 @@
+package de.mineking.commandutils;
+
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import de.mineking.commandutils.annotation.CommandMethod;
+import de.mineking.commandutils.annotation.MinecraftCommand;
+import de.mineking.commandutils.options.Autocomplete;
+import de.mineking.commandutils.options.Option;
+import dev.jorel.commandapi.SuggestionInfo;
+import dev.jorel.commandapi.arguments.ArgumentSuggestions;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutocompleteBenchmark {
+	private static final List<String> NAMES = IntStream.range(0, 1000).mapToObj(i -> "name" + i).toList();
+
+	private ArgumentSuggestions<CommandSender> plain;
+	private ArgumentSuggestions<CommandSender> cached;
+
+	private Player sender;
+	private CommandArguments args;
+
+	@Setup
+	public void setup() {
+		var plugin = Stubs.plugin();
+
+		var instance = plugin.createInstance(Complete.class);
+		var command = AnnotatedCommand.get(Complete.class, (s, a) -> instance);
+
+		plain = suggestions(command, "plain");
+		cached = suggestions(command, "cached");
+
+		sender = Stubs.player("Benchmark");
+		args = Stubs.arguments(Map.of());
+	}
+
+	private static ArgumentSuggestions<CommandSender> suggestions(Command command, String name) {
+		return command.getOptions().stream()
+				.filter(o -> o.getNodeName().equals(name))
+				.findFirst().orElseThrow()
+				.getIncludedSuggestions().orElseThrow();
+	}
+
+	private Suggestions suggest(ArgumentSuggestions<CommandSender> suggestions) throws Exception {
+		var input = "/complete name12";
+		return suggestions.suggest(new SuggestionInfo<>(sender, args, input, "name12"), new SuggestionsBuilder(input, 10)).join();
+	}
+
+	@Benchmark
+	public Suggestions plain() throws Exception {
+		return suggest(plain);
+	}
+
+	@Benchmark
+	public Suggestions cached() throws Exception {
+		return suggest(cached);
+	}
+
+	@MinecraftCommand(name = "complete")
+	public static class Complete {
+		@CommandMethod
+		public void run(Player sender, @Option(name = "plain") String plain, @Option(name = "cached") String cached) {}
+
+		@Autocomplete("plain")
+		public List<String> plain(String current) {
+			return NAMES.stream().filter(n -> n.startsWith(current)).toList();
+		}
+
+		@Autocomplete(value = "cached", cacheDuration = 1, cacheUnit = TimeUnit.HOURS)
+		public List<String> cached(String current) {
+			return NAMES.stream().filter(n -> n.startsWith(current)).toList();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.annotation.CommandMethod;
+import de.mineking.commandutils.annotation.MinecraftCommand;
+import de.mineking.commandutils.options.Option;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+	@Param({"0", "5", "20"})
+	public int options;
+
+	private AnnotatedCommand command;
+	private Player sender;
+	private CommandArguments args;
+
+	@Setup
+	public void setup() {
+		var plugin = Stubs.plugin();
+
+		var type = switch(options) {
+			case 0 -> NoOptions.class;
+			case 5 -> FiveOptions.class;
+			case 20 -> TwentyOptions.class;
+			default -> throw new IllegalArgumentException();
+		};
+
+		var instance = plugin.createInstance(type);
+		command = AnnotatedCommand.get(type, (s, a) -> instance);
+		sender = Stubs.player("Benchmark");
+
+		var values = new LinkedHashMap<String, Object>();
+
+		for(int i = 1; i <= options; i++) {
+			values.put("o" + i, switch(i % 5) {
+				case 1 -> i;
+				case 2 -> "value" + i;
+				case 3 -> i * 0.5;
+				case 4 -> i % 2 == 0;
+				default -> (long) i;
+			});
+		}
+
+		args = Stubs.arguments(values);
+	}
+
+	@Benchmark
+	public void perform() throws Throwable {
+		command.perform(sender, args);
+	}
+
+	@MinecraftCommand(name = "none")
+	public static class NoOptions {
+		@CommandMethod
+		public void run(Player sender) {}
+	}
+
+	@MinecraftCommand(name = "five")
+	public static class FiveOptions {
+		@CommandMethod
+		public void run(Player sender,
+				@Option(name = "o1") int o1, @Option(name = "o2") String o2, @Option(name = "o3") double o3, @Option(name = "o4") boolean o4, @Option(name = "o5") long o5
+		) {}
+	}
+
+	@MinecraftCommand(name = "twenty")
+	public static class TwentyOptions {
+		@CommandMethod
+		public void run(Player sender,
+				@Option(name = "o1") int o1, @Option(name = "o2") String o2, @Option(name = "o3") double o3, @Option(name = "o4") boolean o4, @Option(name = "o5") long o5,
+				@Option(name = "o6") int o6, @Option(name = "o7") String o7, @Option(name = "o8") double o8, @Option(name = "o9") boolean o9, @Option(name = "o10") long o10,
+				@Option(name = "o11") int o11, @Option(name = "o12") String o12, @Option(name = "o13") double o13, @Option(name = "o14") boolean o14, @Option(name = "o15") long o15,
+				@Option(name = "o16") int o16, @Option(name = "o17") String o17, @Option(name = "o18") double o18, @Option(name = "o19") boolean o19, @Option(name = "o20") long o20
+		) {}
+	}
+}
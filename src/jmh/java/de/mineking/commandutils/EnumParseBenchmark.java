@@ -0,0 +1,61 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.options.EnumIndex;
+import de.mineking.commandutils.options.IOptionParser;
+import de.mineking.commandutils.options.Option;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnumParseBenchmark {
+	@Param({"SMALL", "LARGE"})
+	public String size;
+
+	private Parameter param;
+	private CommandArguments args;
+	private EnumIndex index;
+	private String prefix;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		Stubs.plugin();
+
+		var large = size.equals("LARGE");
+
+		param = EnumParseBenchmark.class.getMethod(large ? "large" : "small", large ? Material.class : Size.class).getParameters()[0];
+		args = Stubs.arguments(Map.of("value", large ? "DIAMOND_SWORD" : "MEDIUM"));
+		index = EnumIndex.of(param.getType());
+		prefix = large ? "dia" : "m";
+	}
+
+	@Benchmark
+	public Object parse() {
+		return IOptionParser.ENUM.parse(args, "value", param.getParameterizedType(), param, param.getAnnotation(Option.class));
+	}
+
+	@Benchmark
+	public String[] suggest() {
+		return index.suggest(prefix);
+	}
+
+	public void small(@Option(name = "value") Size value) {}
+
+	public void large(@Option(name = "value") Material value) {}
+
+	public enum Size {
+		SMALL,
+		MEDIUM,
+		LARGE,
+		HUGE
+	}
+}
@@ -0,0 +1,76 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.options.IOptionParser;
+import de.mineking.commandutils.options.Option;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerListBenchmark {
+	@Param({"10", "300"})
+	public int players;
+
+	private CommandArguments args;
+	private Parameter[] params;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		Stubs.plugin();
+
+		var list = new ArrayList<Player>(players);
+		for(int i = 0; i < players; i++) list.add(Stubs.player("Player" + i));
+
+		args = Stubs.arguments(Map.of("players", list));
+		params = PlayerListBenchmark.class.getMethod("targets", Player[].class, List.class, Collection.class, Set.class, Stream.class).getParameters();
+	}
+
+	public static void targets(
+			@Option(name = "players") Player[] array, @Option(name = "players") List<Player> list, @Option(name = "players") Collection<Player> collection,
+			@Option(name = "players") Set<Player> set, @Option(name = "players") Stream<Player> stream
+	) {}
+
+	private Object parse(int index) {
+		var p = params[index];
+		return IOptionParser.PLAYER_LIST.parse(args, "players", p.getParameterizedType(), p, p.getAnnotation(Option.class));
+	}
+
+	@Benchmark
+	public Object array() {
+		return parse(0);
+	}
+
+	@Benchmark
+	public Object list() {
+		return parse(1);
+	}
+
+	@Benchmark
+	public Object collection() {
+		return parse(2);
+	}
+
+	@Benchmark
+	public Object set() {
+		return parse(3);
+	}
+
+	@Benchmark
+	public Object stream() {
+		return parse(4);
+	}
+}
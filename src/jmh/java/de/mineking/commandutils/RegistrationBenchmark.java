@@ -0,0 +1,77 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.annotation.CommandMethod;
+import de.mineking.commandutils.annotation.MinecraftCommand;
+import de.mineking.commandutils.options.Option;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+	@Setup
+	public void setup() {
+		Stubs.plugin();
+	}
+
+	@Benchmark
+	public AnnotatedCommand deepTree() {
+		return AnnotatedCommand.get(Root.class, (s, a) -> null);
+	}
+
+	public static class Leaf {
+		@CommandMethod
+		public void run(CommandSender sender, @Option(name = "amount") int amount, @Option(name = "target") String target) {}
+	}
+
+	@MinecraftCommand(name = "root")
+	public static class Root {
+		@MinecraftCommand(name = "a")
+		public static class A {
+			@MinecraftCommand(name = "a")
+			public static class AA {
+				@MinecraftCommand(name = "a")
+				public static class AAA extends Leaf {}
+
+				@MinecraftCommand(name = "b")
+				public static class AAB extends Leaf {}
+			}
+
+			@MinecraftCommand(name = "b")
+			public static class AB {
+				@MinecraftCommand(name = "a")
+				public static class ABA extends Leaf {}
+
+				@MinecraftCommand(name = "b")
+				public static class ABB extends Leaf {}
+			}
+		}
+
+		@MinecraftCommand(name = "b")
+		public static class B {
+			@MinecraftCommand(name = "a")
+			public static class BA {
+				@MinecraftCommand(name = "a")
+				public static class BAA extends Leaf {}
+
+				@MinecraftCommand(name = "b")
+				public static class BAB extends Leaf {}
+			}
+
+			@MinecraftCommand(name = "b")
+			public static class BB {
+				@MinecraftCommand(name = "a")
+				public static class BBA extends Leaf {}
+
+				@MinecraftCommand(name = "b")
+				public static class BBB extends Leaf {}
+			}
+		}
+	}
+}
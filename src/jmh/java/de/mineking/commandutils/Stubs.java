@@ -0,0 +1,78 @@
+package de.mineking.commandutils;
+
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.logging.Logger;
+
+public final class Stubs {
+	private static CommandUtils plugin;
+
+	private Stubs() {}
+
+	@NotNull
+	@SuppressWarnings("deprecation")
+	public static synchronized CommandUtils plugin() {
+		if(plugin == null) {
+			var folder = new File(System.getProperty("java.io.tmpdir"), "commandutils-jmh");
+
+			plugin = new CommandUtils(new JavaPluginLoader(stub(Server.class, "Server", Map.of("isPrimaryThread", true))), new PluginDescriptionFile("CommandUtils", "benchmark", CommandUtils.class.getName()), folder, new File(folder, "CommandUtils.jar"));
+			plugin.setup();
+			plugin.setAutocompleteExecutor(AutocompleteExecutor.inline());
+		}
+
+		return plugin;
+	}
+
+	@NotNull
+	public static Player player(@NotNull String name) {
+		return stub(Player.class, name, Map.of(
+				"getName", name,
+				"getUniqueId", UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8))
+		));
+	}
+
+	@NotNull
+	public static CommandArguments arguments(@NotNull Map<String, Object> values) {
+		var map = new LinkedHashMap<>(values);
+		return new CommandArguments(map.values().toArray(), map, new String[0], Map.of(), "");
+	}
+
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public static <T> T stub(@NotNull Class<T> type, @NotNull String name, @NotNull Map<String, Object> values) {
+		return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> switch(method.getName()) {
+			case "equals" -> args != null && args.length == 1 && proxy == args[0];
+			case "hashCode" -> System.identityHashCode(proxy);
+			case "toString" -> name;
+			default -> values.containsKey(method.getName())
+					? values.get(method.getName())
+					: defaultValue(method.getReturnType(), name + "." + method.getName());
+		});
+	}
+
+	private static Object defaultValue(Class<?> type, String name) {
+		if(type == boolean.class) return false;
+		if(type == byte.class) return (byte) 0;
+		if(type == short.class) return (short) 0;
+		if(type == char.class) return (char) 0;
+		if(type == int.class) return 0;
+		if(type == long.class) return 0L;
+		if(type == float.class) return 0f;
+		if(type == double.class) return 0d;
+
+		if(type == Logger.class) return Logger.getLogger(name);
+		if(type == Optional.class) return Optional.empty();
+		if(type.isInterface()) return stub(type, name, Map.of());
+
+		return null;
+	}
+}
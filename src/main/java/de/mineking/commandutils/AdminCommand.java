@@ -0,0 +1,15 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.metrics.MetricsCommand;
+import de.mineking.commandutils.metrics.TracesCommand;
+
+class AdminCommand extends Command {
+	AdminCommand() {
+		super("commandutils");
+
+		this.permission = "commandutils.admin";
+
+		addSubcommand(new MetricsCommand());
+		addSubcommand(new TracesCommand());
+	}
+}
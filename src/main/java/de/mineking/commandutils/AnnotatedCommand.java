@@ -1,127 +1,414 @@
 package de.mineking.commandutils;
 
-import de.mineking.commandutils.annotation.CommandMethod;
 import de.mineking.commandutils.annotation.MinecraftCommand;
 import de.mineking.commandutils.annotation.Permission;
+import de.mineking.commandutils.annotation.RateLimit;
+import de.mineking.commandutils.metrics.Trace;
 import de.mineking.commandutils.options.Autocomplete;
+import de.mineking.commandutils.options.AutocompleteCache;
+import de.mineking.commandutils.options.CacheScope;
 import de.mineking.commandutils.options.Option;
+import de.mineking.commandutils.options.OptionArray;
+import de.mineking.commandutils.options.defaultValue.BooleanDefault;
+import de.mineking.commandutils.options.defaultValue.EnumDefault;
+import de.mineking.commandutils.options.defaultValue.IntegerDefault;
+import de.mineking.commandutils.options.defaultValue.StringDefault;
+import de.mineking.javautils.reflection.ReflectionUtils;
 import dev.jorel.commandapi.arguments.ArgumentSuggestions;
 import dev.jorel.commandapi.executors.CommandArguments;
+import dev.jorel.commandapi.executors.ExecutorType;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Set;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class AnnotatedCommand extends Command {
+	private static final List<Class<? extends Annotation>> DEFAULTS = List.of(IntegerDefault.class, BooleanDefault.class, StringDefault.class, EnumDefault.class);
+
 	public final Class<?> type;
 
 	private final BiFunction<CommandSender, CommandArguments, Object> instance;
 	private final Method method;
+	private final CommandInvoker invoker;
+	private final DirectInvoker direct;
+	private final ParameterResolver[] plan;
+	private final ParameterResolver[] typedPlan;
+	private final String[] phases;
+	private final Set<Parameter> parameters;
+	private final Map<String, String> optionPermissions = new HashMap<>();
 
-	@SuppressWarnings("unchecked")
-	private AnnotatedCommand(Class<?> type, MinecraftCommand info, BiFunction<CommandSender, CommandArguments, Object> instance) {
+	private final Map<String, AutocompleteCache> caches = new HashMap<>();
+
+	private AnnotatedCommand(Class<?> type, MinecraftCommand info, CommandBinder binder, BiFunction<CommandSender, CommandArguments, Object> instance, Function<Class<?>, CommandBinder> binders) throws ReflectiveOperationException {
 		super(info.name(), info.aliases());
 
 		this.instance = instance;
 		this.type = type;
 		this.executors = Set.of(info.executors());
+		this.async = info.async();
 
 		if(type.isAnnotationPresent(Permission.class)) this.permission = type.getAnnotation(Permission.class).value();
 
-		Method method = null;
-
-		for(var m : type.getMethods()) {
-			if(m.isAnnotationPresent(CommandMethod.class)) {
-				method = m;
-				break;
-			}
-		}
+		this.method = binder.getCommandMethod();
 
-		this.method = method;
+		var rateLimit = method != null && method.isAnnotationPresent(RateLimit.class) ? method.getAnnotation(RateLimit.class) : type.getAnnotation(RateLimit.class);
+		if(rateLimit != null) this.rateLimit = RateLimiter.of(rateLimit);
 
 		if(method != null) {
-			var autocomplete = new HashMap<String, ArgumentSuggestions<CommandSender>>();
-
-			for(var m : type.getMethods()) {
-				var a = m.getAnnotation(Autocomplete.class);
-				if(a == null) continue;
+			var mode = CommandUtils.INSTANCE.getDispatchMode();
+			this.invoker = bind(method, binder.getInvoker(), mode);
 
-				autocomplete.put(a.value(), ArgumentSuggestions.stringCollectionAsync(ai -> CompletableFuture.supplyAsync(() -> {
-					var params = new Object[m.getParameterCount()];
-
-					for(int i = 0; i < m.getParameterCount(); i++) {
-						var p = m.getParameters()[i];
+			var autocomplete = new HashMap<String, ArgumentSuggestions<CommandSender>>();
 
-						if(p.getType().isAssignableFrom(ai.sender().getClass())) params[i] = ai.sender();
-						else if(p.getType().isAssignableFrom(CommandArguments.class)) params[i] = ai.previousArgs();
-						else if(p.getType().isAssignableFrom(String.class)) params[i] = ai.currentArg();
-					}
+			for(var entry : binder.getAutocompleteMethods().entrySet()) {
+				var m = entry.getValue();
 
-					try {
-						return (Collection<String>) m.invoke(instance.apply(ai.sender(), ai.previousArgs()), params);
-					} catch(IllegalAccessException | InvocationTargetException e) {
-						CommandUtils.INSTANCE.getSLF4JLogger().error("Failed to invoke autocomplete method", e instanceof InvocationTargetException ie ? ie.getCause() : e);
-						return Collections.emptyList();
-					}
-				})));
+				var suggester = bind(m, binder.getAutocompleteInvoker(entry.getKey()), mode);
+				autocomplete.put(entry.getKey(), createSuggestions(entry.getKey(), m, suggester));
 			}
 
 			var generics = method.getGenericParameterTypes();
 			var params = method.getParameters();
 
-			for(int i = 0; i < method.getParameterCount(); i++) {
+			this.parameters = Set.of(params);
+
+			this.plan = new ParameterResolver[params.length];
+			this.typedPlan = new ParameterResolver[params.length];
+			this.phases = new String[params.length];
+
+			var handles = new MethodHandle[params.length];
+
+			for(int i = 0; i < params.length; i++) {
 				var p = params[i];
 				var g = generics[i];
 
 				var option = p.getAnnotation(Option.class);
-				if(option == null) continue;
 
-				CommandUtils.INSTANCE.findParser(g, p).register(this, g, p, option, autocomplete.get(p.getName()));
+				if(option == null) {
+					plan[i] = ParameterResolver.sender(p.getType());
+					typedPlan[i] = plan[i];
+					phases[i] = "sender";
+					handles[i] = DirectInvoker.resolver(plan[i], p.getType());
+					continue;
+				}
+
+				var name = option.name().isEmpty() ? p.getName() : option.name();
+				var parser = CommandUtils.INSTANCE.findParser(g, p);
+
+				parser.register(this, g, p, option, autocomplete.get(p.getName()));
+				if(p.isAnnotationPresent(Permission.class)) registerOptionPermission(name, p);
+				phases[i] = "parse " + name;
+
+				var def = parser.getDefault(g, p, option);
+				validate(name, p, g, option, def);
+
+				ParameterResolver resolver = def == null
+						? (s, a) -> parser.parse(a, name, g, p, option)
+						: (s, a) -> {
+							var value = parser.parse(a, name, g, p, option);
+							return value == null ? def : value;
+						};
+				plan[i] = resolver;
+
+				var primitive = def == null ? null : DirectInvoker.primitive(parser, p.getType(), name, g, p, option, def);
+				handles[i] = primitive != null ? primitive : DirectInvoker.resolver(resolver, p.getType());
+
+				typedPlan[i] = typed(name, g, p.getType(), resolver);
 			}
+
+			this.direct = direct(method, handles, mode);
+		} else {
+			this.invoker = null;
+			this.direct = null;
+			this.plan = null;
+			this.typedPlan = null;
+			this.phases = null;
+			this.parameters = Set.of();
 		}
 
-		for(var c : type.getClasses()) {
-			if(!c.isAnnotationPresent(MinecraftCommand.class)) continue;
+		for(var c : binder.getSubcommands()) {
+			addSubcommand(get(c, InstanceProvider.forCommand(c), binders));
+		}
+	}
+
+	private void registerOptionPermission(String name, Parameter param) {
+		var node = param.getAnnotation(Permission.class).value();
+		optionPermissions.put(name, node);
+
+		var array = param.getAnnotation(OptionArray.class);
+		if(array != null) for(int i = 1; i <= array.maxCount(); i++) optionPermissions.put(name + i, node);
+	}
+
+	@Override
+	@Nullable
+	String getOptionPermission(@NotNull String option) {
+		return optionPermissions.get(option);
+	}
+
+	private static void validate(String name, Parameter param, Type generic, Option option, Object def) {
+		if(option.minValue() > option.maxValue()) throw new IllegalStateException("Option '" + name + "' has minValue " + option.minValue() + " > maxValue " + option.maxValue());
+
+		if(!option.required() && param.getType().isPrimitive() && DEFAULTS.stream().noneMatch(param::isAnnotationPresent)) throw new IllegalStateException("Optional primitive option '" + name + "' requires a default annotation, use " + MethodType.methodType(param.getType()).wrap().returnType().getSimpleName() + " to detect omitted values");
+
+		if(def instanceof Optional<?> o) def = o.orElse(null);
+		if(def instanceof CompletableFuture<?> f) def = f.getNow(null);
+		if(def == null || DEFAULTS.stream().noneMatch(param::isAnnotationPresent)) return;
+
+		var raw = ReflectionUtils.getClass(generic);
+		var value = raw == Optional.class || raw == CompletableFuture.class ? ReflectionUtils.getClass(ReflectionUtils.getComponentType(generic)) : raw;
+		if(!MethodType.methodType(value).wrap().returnType().isInstance(def)) throw new IllegalStateException("Default " + def + " of option '" + name + "' does not match its type " + generic.getTypeName());
+
+		if(!param.isAnnotationPresent(IntegerDefault.class) || !(def instanceof Number n)) return;
+
+		if(n.doubleValue() < option.minValue() || n.doubleValue() > option.maxValue()) throw new IllegalStateException("Default " + n + " of option '" + name + "' is outside of [" + option.minValue() + ", " + option.maxValue() + "]");
+	}
+
+	private static ParameterResolver typed(String name, Type generic, Class<?> type, ParameterResolver resolver) {
+		var boxed = MethodType.methodType(type).wrap().returnType();
+
+		var wrapper = type == Optional.class || type == CompletableFuture.class || ReflectionUtils.isArray(generic, true);
+		var component = wrapper ? MethodType.methodType(ReflectionUtils.getClass(ReflectionUtils.getComponentType(generic))).wrap().returnType() : null;
+
+		return (s, a) -> {
+			var value = a.get(name);
+
+			if(value == null) return resolver.resolve(s, a);
+			if(boxed.isInstance(value)) return value;
+
+			if(component != null && component.isInstance(value)) {
+				if(type == Optional.class) return Optional.of(value);
+				if(type == CompletableFuture.class) return CompletableFuture.completedFuture(value);
+				return convert(name, type, component, List.of(value));
+			}
+
+			if(component != null && !(value instanceof String) && (value instanceof Collection<?> || value.getClass().isArray())) {
+				if(type == Optional.class || type == CompletableFuture.class) throw mismatch(name, generic, value);
+				return convert(name, type, component, value instanceof Collection<?> c ? c : elements(value));
+			}
+
+			if(!(value instanceof String)) throw mismatch(name, generic, value);
+
+			try {
+				return resolver.resolve(s, a);
+			} catch(ClassCastException e) {
+				throw mismatch(name, generic, value);
+			}
+		};
+	}
+
+	private static Object convert(String name, Class<?> type, Class<?> component, Collection<?> values) {
+		for(var v : values) {
+			if(!component.isInstance(v)) throw new IllegalArgumentException("Option '" + name + "' expects elements of type " + component.getName() + " but got " + (v == null ? "null" : v.getClass().getName()));
+		}
+
+		if(type.isArray()) {
+			var array = Array.newInstance(type.getComponentType(), values.size());
+
+			var i = 0;
+			for(var v : values) Array.set(array, i++, v);
+
+			return array;
+		}
+
+		if(type == Stream.class) return values.stream();
+		if(type.isInstance(values)) return values;
+		if(type.isAssignableFrom(List.class)) return new ArrayList<>(values);
+		if(type.isAssignableFrom(Set.class)) return new HashSet<>(values);
+
+		throw new IllegalArgumentException("Option '" + name + "' of type " + type.getName() + " cannot be passed as a collection");
+	}
+
+	private static List<Object> elements(Object array) {
+		var result = new ArrayList<>(Array.getLength(array));
+		for(int i = 0; i < Array.getLength(array); i++) result.add(Array.get(array, i));
+		return result;
+	}
+
+	private static IllegalArgumentException mismatch(String name, Type type, Object value) {
+		return new IllegalArgumentException("Option '" + name + "' expects a value of type " + type.getTypeName() + " but got " + value.getClass().getName());
+	}
+
+	private static DirectInvoker direct(Method method, MethodHandle[] handles, DispatchMode mode) {
+		if(mode != DispatchMode.METHOD_HANDLE) return null;
 
-			var i = CommandUtils.INSTANCE.createInstance(c);
-			addSubcommand(get(c, (s, a) -> i));
+		try {
+			return DirectInvoker.of(method, handles);
+		} catch(IllegalAccessException e) {
+			CommandUtils.INSTANCE.getSLF4JLogger().debug("Not using direct dispatch for {}: {}", method, e.getMessage());
+			return null;
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private ArgumentSuggestions<CommandSender> createSuggestions(String option, Method method, CommandInvoker suggester) {
+		var types = method.getParameterTypes();
+		var info = method.getAnnotation(Autocomplete.class);
+
+		var cache = info == null || info.cacheDuration() <= 0 ? null : new AutocompleteCache(info.cacheDuration(), info.cacheUnit(), info.cacheSize());
+		if(cache != null) caches.put(info.value(), cache);
+
+		var limit = info != null && info.limit() > 0 ? info.limit() : CommandUtils.INSTANCE.getSuggestionLimit();
+
+		var perSender = info != null && info.cacheScope() == CacheScope.SENDER;
+		var usesArgs = Arrays.stream(types).anyMatch(t -> t.isAssignableFrom(CommandArguments.class));
+
+		return ArgumentSuggestions.stringCollectionAsync(ai -> {
+			Object scope = null;
+
+			if(cache != null) {
+				var sender = perSender ? (ai.sender() instanceof Entity e ? e.getUniqueId() : ai.sender().getName()) : null;
+				scope = usesArgs ? Arrays.asList(sender, ai.previousArgs().argsMap()) : sender;
+
+				var cached = cache.get(scope, ai.currentArg());
+				if(cached != null) return CompletableFuture.completedFuture(cached);
+			}
+
+			var key = scope;
+			return CommandUtils.INSTANCE.getAutocompleteExecutor().submit(ai.sender(), () -> {
+				var params = new Object[types.length];
+
+				for(int i = 0; i < types.length; i++) {
+					var t = types[i];
+
+					if(t.isInstance(ai.sender())) params[i] = ai.sender();
+					else if(t.isAssignableFrom(CommandArguments.class)) params[i] = ai.previousArgs();
+					else if(t.isAssignableFrom(String.class)) params[i] = ai.currentArg();
+					else if(t == int.class) params[i] = limit;
+				}
+
+				var metrics = CommandUtils.INSTANCE.getMetrics();
+				var start = metrics == null ? 0 : System.nanoTime();
+
+				try {
+					var raw = suggester.invoke(instance.apply(ai.sender(), ai.previousArgs()), params);
+
+					Collection<String> result;
+					var complete = true;
+
+					if(raw == null || raw instanceof Collection<?>) result = (Collection<String>) raw;
+					else {
+						var iterator = raw instanceof Stream<?> stream ? stream.iterator() : raw instanceof Iterable<?> iterable ? iterable.iterator() : (Iterator<?>) raw;
+						var values = new ArrayList<String>(Math.min(limit, 64));
+
+						try {
+							while(values.size() < limit && iterator.hasNext()) values.add(String.valueOf(iterator.next()));
+							complete = !iterator.hasNext();
+						} finally {
+							if(raw instanceof Stream<?> stream) stream.close();
+						}
+
+						result = values;
+					}
+
+					if(metrics != null) metrics.recordAutocomplete(getPath(), option, System.nanoTime() - start, false);
+
+					if(cache != null && result != null) cache.put(key, ai.currentArg(), result, complete);
+					return result;
+				} catch(Throwable e) {
+					if(metrics != null) metrics.recordAutocomplete(getPath(), option, System.nanoTime() - start, true);
+
+					CommandUtils.INSTANCE.getSLF4JLogger().error("Failed to invoke autocomplete method", e);
+					return Collections.emptyList();
+				}
+			});
+		});
+	}
+
+	@Nullable
+	public AutocompleteCache getAutocompleteCache(@NotNull String option) {
+		return caches.get(option);
+	}
+
+	@NotNull
+	public Map<String, AutocompleteCache> getAutocompleteCaches() {
+		return Collections.unmodifiableMap(caches);
+	}
+
+	private static CommandInvoker bind(Method method, CommandInvoker generated, DispatchMode mode) {
+		return generated != null && mode != DispatchMode.REFLECTION ? generated : CommandInvoker.of(method, mode);
+	}
+
 	public static AnnotatedCommand get(@NotNull Class<?> type, @NotNull BiFunction<CommandSender, CommandArguments, Object> instance) {
+		return get(type, instance, CommandBinder::find);
+	}
+
+	static AnnotatedCommand get(@NotNull Class<?> type, @NotNull BiFunction<CommandSender, CommandArguments, Object> instance, @NotNull Function<Class<?>, CommandBinder> binders) {
 		var info = type.getAnnotation(MinecraftCommand.class);
 		if(info == null) throw new IllegalArgumentException();
-		return new AnnotatedCommand(type, info, instance);
+
+		try {
+			return new AnnotatedCommand(type, info, binders.apply(type), instance, binders);
+		} catch(ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to bind command " + type.getName(), e);
+		}
 	}
 
 	@Override
 	public void perform(@NotNull CommandSender sender, @NotNull CommandArguments args) throws Throwable {
-		if(method == null) return;
+		if(direct == null) invoke(plan, sender, args);
+		else handle(direct.invoke(instance.apply(sender, args), sender, args));
+	}
 
-		var params = new Object[method.getParameterCount()];
+	@Override
+	void performTyped(@NotNull CommandSender sender, @NotNull ExecutorType type, @NotNull CommandArguments args) throws Throwable {
+		invoke(typedPlan, sender, args);
+	}
 
-		for(int i = 0; i < method.getParameterCount(); i++) {
-			var p = method.getParameters()[i];
-			var g = method.getGenericParameterTypes()[i];
+	@Override
+	void performTraced(@NotNull CommandSender sender, @NotNull CommandArguments args, @NotNull Trace trace) throws Throwable {
+		if(method == null) return;
 
-			var option = p.getAnnotation(Option.class);
+		var time = System.nanoTime();
 
-			if(option == null) {
-				if(p.getType().isAssignableFrom(sender.getClass())) params[i] = sender;
-			} else params[i] = CommandUtils.INSTANCE.parseArgument(args, option.name().isEmpty() ? p.getName() : option.name(), g, p, option);
+		var params = new Object[plan.length];
+		for(int i = 0; i < plan.length; i++) {
+			params[i] = plan[i].resolve(sender, args);
+			time = trace.record(phases[i], time);
 		}
 
-		try {
-			method.invoke(instance.apply(sender, args), params);
-		} catch(InvocationTargetException e) {
-			throw e.getCause();
-		}
+		var target = instance.apply(sender, args);
+		time = trace.record("instance", time);
+
+		handle(invoker.invoke(target, params));
+		trace.record("invoke", time);
+	}
+
+	private void invoke(ParameterResolver[] plan, CommandSender sender, CommandArguments args) throws Throwable {
+		if(method == null) return;
+
+		var params = new Object[plan.length];
+		for(int i = 0; i < plan.length; i++) params[i] = plan[i].resolve(sender, args);
+
+		handle(invoker.invoke(instance.apply(sender, args), params));
+	}
+
+	private static void handle(Object result) {
+		if(result instanceof CompletionStage<?> stage) stage.whenComplete((r, e) -> {
+			if(e != null) log(ExecutorType.ALL, e instanceof CompletionException ce && ce.getCause() != null ? ce.getCause() : e);
+		});
+	}
+
+	@NotNull
+	Set<Parameter> getParameters() {
+		return parameters;
+	}
+
+	public boolean isFastPath() {
+		return direct != null || invoker != null && invoker.isFastPath();
 	}
 }
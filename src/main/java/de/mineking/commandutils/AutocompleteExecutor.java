@@ -0,0 +1,84 @@
+package de.mineking.commandutils;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class AutocompleteExecutor {
+	private final Executor executor;
+	private final long timeout;
+
+	private final Map<Object, CompletableFuture<Collection<String>>> pending = new ConcurrentHashMap<>();
+
+	public AutocompleteExecutor(@NotNull Executor executor, long timeout, @NotNull TimeUnit unit) {
+		this.executor = executor;
+		this.timeout = unit.toMillis(timeout);
+	}
+
+	@NotNull
+	public static AutocompleteExecutor fixed(int threads, int queueSize, long timeout, @NotNull TimeUnit unit) {
+		var counter = new AtomicInteger();
+
+		return new AutocompleteExecutor(new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+			var thread = new Thread(r, "CommandUtils Autocomplete #" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}), timeout, unit);
+	}
+
+	@NotNull
+	public static AutocompleteExecutor virtual(long timeout, @NotNull TimeUnit unit) {
+		try {
+			return new AutocompleteExecutor((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null), timeout, unit);
+		} catch(ReflectiveOperationException e) {
+			CommandUtils.INSTANCE.getSLF4JLogger().warn("Virtual threads are not available on this JVM, using a fixed pool for autocomplete");
+			return fixed(Runtime.getRuntime().availableProcessors(), 1024, timeout, unit);
+		}
+	}
+
+	@NotNull
+	public static AutocompleteExecutor inline() {
+		return new AutocompleteExecutor(Runnable::run, 0, TimeUnit.MILLISECONDS);
+	}
+
+	@NotNull
+	public CompletableFuture<Collection<String>> submit(@NotNull CommandSender sender, @NotNull Supplier<Collection<String>> task) {
+		var key = sender instanceof Entity e ? e.getUniqueId() : sender;
+		var future = new CompletableFuture<Collection<String>>();
+
+		var previous = pending.put(key, future);
+		if(previous != null) previous.complete(Collections.emptyList());
+
+		try {
+			executor.execute(() -> {
+				if(future.isDone()) return;
+
+				try {
+					future.complete(task.get());
+				} catch(Throwable e) {
+					CommandUtils.INSTANCE.getSLF4JLogger().error("Failed to compute suggestions", e);
+					future.complete(Collections.emptyList());
+				}
+			});
+		} catch(RejectedExecutionException e) {
+			future.complete(Collections.emptyList());
+		}
+
+		if(timeout > 0 && !future.isDone()) future.completeOnTimeout(Collections.emptyList(), timeout, TimeUnit.MILLISECONDS);
+
+		future.whenComplete((r, e) -> pending.remove(key, future));
+		return future;
+	}
+
+	public void shutdown() {
+		pending.values().forEach(f -> f.complete(Collections.emptyList()));
+		if(executor instanceof ExecutorService service) service.shutdownNow();
+	}
+}
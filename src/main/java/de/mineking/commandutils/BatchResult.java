@@ -0,0 +1,23 @@
+package de.mineking.commandutils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public record BatchResult(int executed, long nanos, @NotNull List<Failure> failures) {
+	public record Failure(int index, @NotNull Invocation invocation, @NotNull Throwable error) {}
+
+	public int failed() {
+		return failures.size();
+	}
+
+	public boolean isSuccess() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "Executed " + executed + " commands (" + failed() + " failed) in " + TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+	}
+}
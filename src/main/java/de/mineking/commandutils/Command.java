@@ -1,7 +1,11 @@
 package de.mineking.commandutils;
 
+import de.mineking.commandutils.metrics.Trace;
+import de.mineking.commandutils.metrics.Tracer;
+import dev.jorel.commandapi.CommandAPI;
 import dev.jorel.commandapi.CommandAPICommand;
 import dev.jorel.commandapi.arguments.Argument;
+import dev.jorel.commandapi.exceptions.WrapperCommandSyntaxException;
 import dev.jorel.commandapi.executors.CommandArguments;
 import dev.jorel.commandapi.executors.ExecutorType;
 import org.bukkit.command.BlockCommandSender;
@@ -9,11 +13,27 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 public abstract class Command {
+	private static final ClassValue<Set<ExecutorType>> TYPED = new ClassValue<>() {
+		@Override
+		protected Set<ExecutorType> computeValue(@NotNull Class<?> type) {
+			var result = EnumSet.noneOf(ExecutorType.class);
+
+			if(overrides(type, "performPlayer", Player.class)) result.add(ExecutorType.PLAYER);
+			if(overrides(type, "performConsole", ConsoleCommandSender.class)) result.add(ExecutorType.CONSOLE);
+			if(overrides(type, "performBlock", BlockCommandSender.class)) result.add(ExecutorType.BLOCK);
+
+			return result;
+		}
+	};
+
 	private final String name;
+	private Command parent;
 
 	private final List<Argument<?>> options = new ArrayList<>();
 	private final Set<Command> subcommands = new HashSet<>();
@@ -24,6 +44,10 @@ public abstract class Command {
 
 	protected String permission;
 
+	protected boolean async;
+
+	protected RateLimiter rateLimit;
+
 	public Command(@NotNull String name, @NotNull String... aliases) {
 		this.name = name;
 		this.aliases.addAll(Arrays.asList(aliases));
@@ -42,18 +66,58 @@ public abstract class Command {
 		return name;
 	}
 
+	@NotNull
+	public Set<String> getAliases() {
+		return Collections.unmodifiableSet(aliases);
+	}
+
+	@NotNull
+	public String getPath() {
+		return parent == null ? name : parent.getPath() + " " + name;
+	}
+
+	@NotNull
+	public List<Argument<?>> getOptions() {
+		return Collections.unmodifiableList(options);
+	}
+
+	@NotNull
+	public Set<Command> getSubcommands() {
+		return Collections.unmodifiableSet(subcommands);
+	}
+
+	@Nullable
+	public Command getSubcommand(@NotNull String name) {
+		for(var c : subcommands) {
+			if(c.name.equalsIgnoreCase(name) || c.aliases.stream().anyMatch(name::equalsIgnoreCase)) return c;
+		}
+
+		return null;
+	}
+
 	@NotNull
 	public final Command addSubcommand(@NotNull Command command) {
 		if(!options.isEmpty()) throw new IllegalStateException();
 
+		command.parent = this;
 		subcommands.add(command);
 		return this;
 	}
 
 	public final Command addSubcommand(@NotNull Class<?> type) {
 		if(!options.isEmpty()) throw new IllegalStateException();
-		var instance = CommandUtils.INSTANCE.createInstance(type);
-		return addSubcommand(AnnotatedCommand.get(type, (s, a) -> instance));
+		return addSubcommand(AnnotatedCommand.get(type, InstanceProvider.forCommand(type)));
+	}
+
+	@NotNull
+	public final Command setRateLimit(@Nullable RateLimiter rateLimit) {
+		this.rateLimit = rateLimit;
+		return this;
+	}
+
+	@Nullable
+	public RateLimiter getRateLimit() {
+		return rateLimit;
 	}
 
 	@NotNull
@@ -65,6 +129,8 @@ public abstract class Command {
 	}
 
 	public CommandAPICommand build() {
+		var path = getPath();
+
 		var temp = new CommandAPICommand(name)
 				.withSubcommands(subcommands.stream()
 						.map(Command::build)
@@ -72,38 +138,161 @@ public abstract class Command {
 				)
 				.withAliases(aliases.toArray(String[]::new))
 				.withArguments(options)
-				.executes((sender, args) -> {
-					try {
-						perform(sender, args);
-					} catch(Throwable e) {
-						CommandUtils.INSTANCE.getSLF4JLogger().error("Error execution general method", e);
-					}
-				}, executors.toArray(ExecutorType[]::new));
+				.executes((sender, args) -> run(path, ExecutorType.ALL, sender, args, this::perform), executors.toArray(ExecutorType[]::new));
 
-		if(permission != null) temp.withPermission(permission);
+		if(permission != null) {
+			var node = permission;
 
-		if(executors.contains(ExecutorType.PLAYER)) temp.executesPlayer((sender, args) -> {
-			try {
-				performPlayer(sender, args);
-			} catch(Throwable e) {
-				CommandUtils.INSTANCE.getSLF4JLogger().error("Error execution player method", e);
-			}
-		});
-		if(executors.contains(ExecutorType.CONSOLE)) temp.executesConsole((sender, args) -> {
+			if(CommandUtils.INSTANCE.getPermissionCache() == null) temp.withPermission(node);
+			else temp.withRequirement(sender -> CommandUtils.INSTANCE.hasPermission(sender, node));
+		}
+
+		if(executors.contains(ExecutorType.PLAYER)) temp.executesPlayer((sender, args) -> run(path, ExecutorType.PLAYER, sender, args, this::performPlayer));
+		if(executors.contains(ExecutorType.CONSOLE)) temp.executesConsole((sender, args) -> run(path, ExecutorType.CONSOLE, sender, args, this::performConsole));
+		if(executors.contains(ExecutorType.BLOCK)) temp.executesCommandBlock((sender, args) -> run(path, ExecutorType.BLOCK, sender, args, this::performBlock));
+
+		return temp;
+	}
+
+	private <S extends CommandSender> void run(@NotNull String path, @NotNull ExecutorType type, @NotNull S sender, @NotNull CommandArguments args, @NotNull Action<S> action) throws WrapperCommandSyntaxException {
+		if(rateLimit != null && !rateLimit.tryAcquire(sender)) throw CommandAPI.failWithString(rateLimit.getMessage());
+
+		if(!async) {
+			execute(path, type, sender, args, action);
+			return;
+		}
+
+		try {
+			CommandUtils.INSTANCE.getCommandExecutor().execute(() -> execute(path, type, sender, args, action));
+		} catch(RejectedExecutionException e) {
+			log(type, e);
+		}
+	}
+
+	private <S extends CommandSender> void execute(@NotNull String path, @NotNull ExecutorType type, @NotNull S sender, @NotNull CommandArguments args, @NotNull Action<S> action) {
+		var tracer = CommandUtils.INSTANCE.getTracer();
+		if(tracer != null) {
+			trace(tracer, path, type, sender, args, action);
+			return;
+		}
+
+		var metrics = CommandUtils.INSTANCE.getMetrics();
+
+		if(metrics == null) {
 			try {
-				performConsole(sender, args);
+				action.perform(sender, args);
 			} catch(Throwable e) {
-				CommandUtils.INSTANCE.getSLF4JLogger().error("Error execution console method", e);
+				fail(type, sender, e);
 			}
-		});
-		if(executors.contains(ExecutorType.BLOCK)) temp.executesCommandBlock((sender, args) -> {
-			try {
-				performBlock(sender, args);
-			} catch(Throwable e) {
-				CommandUtils.INSTANCE.getSLF4JLogger().error("Error execution block method", e);
+
+			return;
+		}
+
+		var start = System.nanoTime();
+		var failed = false;
+
+		try {
+			action.perform(sender, args);
+		} catch(Throwable e) {
+			failed = true;
+			fail(type, sender, e);
+		} finally {
+			metrics.recordExecution(path, type, System.nanoTime() - start, failed);
+		}
+	}
+
+	private <S extends CommandSender> void trace(@NotNull Tracer tracer, @NotNull String path, @NotNull ExecutorType type, @NotNull S sender, @NotNull CommandArguments args, @NotNull Action<S> action) {
+		var metrics = CommandUtils.INSTANCE.getMetrics();
+
+		var trace = tracer.start(path, sender);
+		var start = System.nanoTime();
+		var failed = false;
+
+		try {
+			if(type == ExecutorType.ALL) performTraced(sender, args, trace);
+			else {
+				action.perform(sender, args);
+				trace.record("invoke", start);
 			}
-		});
+		} catch(Throwable e) {
+			failed = true;
+			fail(type, sender, e);
+		} finally {
+			if(metrics != null) metrics.recordExecution(path, type, System.nanoTime() - start, failed);
+			tracer.finish(trace, failed);
+		}
+	}
 
-		return temp;
+	void performTraced(@NotNull CommandSender sender, @NotNull CommandArguments args, @NotNull Trace trace) throws Throwable {
+		var start = System.nanoTime();
+		perform(sender, args);
+		trace.record("invoke", start);
+	}
+
+	public boolean accepts(@NotNull CommandSender sender) {
+		return sender instanceof Player ? executors.contains(ExecutorType.PLAYER)
+				: sender instanceof ConsoleCommandSender ? executors.contains(ExecutorType.CONSOLE)
+				: sender instanceof BlockCommandSender ? executors.contains(ExecutorType.BLOCK)
+				: executors.contains(ExecutorType.ALL);
+	}
+
+	public boolean hasPermission(@NotNull CommandSender sender) {
+		for(var command = this; command != null; command = command.parent) {
+			if(command.permission != null && !CommandUtils.INSTANCE.hasPermission(sender, command.permission)) return false;
+		}
+
+		return true;
+	}
+
+	@Nullable
+	String getOptionPermission(@NotNull String option) {
+		return null;
+	}
+
+	@NotNull
+	ExecutorType getExecutorType(@NotNull CommandSender sender) {
+		var typed = TYPED.get(getClass());
+
+		if(sender instanceof Player && typed.contains(ExecutorType.PLAYER) && executors.contains(ExecutorType.PLAYER)) return ExecutorType.PLAYER;
+		if(sender instanceof ConsoleCommandSender && typed.contains(ExecutorType.CONSOLE) && executors.contains(ExecutorType.CONSOLE)) return ExecutorType.CONSOLE;
+		if(sender instanceof BlockCommandSender && typed.contains(ExecutorType.BLOCK) && executors.contains(ExecutorType.BLOCK)) return ExecutorType.BLOCK;
+
+		return ExecutorType.ALL;
+	}
+
+	void performTyped(@NotNull CommandSender sender, @NotNull ExecutorType type, @NotNull CommandArguments args) throws Throwable {
+		switch(type) {
+			case PLAYER -> performPlayer((Player) sender, args);
+			case CONSOLE -> performConsole((ConsoleCommandSender) sender, args);
+			case BLOCK -> performBlock((BlockCommandSender) sender, args);
+			default -> perform(sender, args);
+		}
+	}
+
+	private static boolean overrides(@NotNull Class<?> type, @NotNull String name, @NotNull Class<?> sender) {
+		try {
+			return type.getMethod(name, sender, CommandArguments.class).getDeclaringClass() != Command.class;
+		} catch(NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	private static void fail(@NotNull ExecutorType type, @NotNull CommandSender sender, @NotNull Throwable e) {
+		if(e instanceof CommandFailedException) sender.sendMessage(e.getMessage());
+		else log(type, e);
+	}
+
+	static void log(@NotNull ExecutorType type, @NotNull Throwable e) {
+		CommandUtils.INSTANCE.getSLF4JLogger().error("Error execution " + switch(type) {
+			case PLAYER -> "player";
+			case CONSOLE -> "console";
+			case BLOCK -> "block";
+			default -> "general";
+		} + " method", e);
+	}
+
+	@FunctionalInterface
+	private interface Action<S extends CommandSender> {
+		void perform(@NotNull S sender, @NotNull CommandArguments args) throws Throwable;
 	}
 }
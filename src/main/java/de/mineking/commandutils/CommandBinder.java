@@ -0,0 +1,114 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.annotation.CommandMethod;
+import de.mineking.commandutils.annotation.MinecraftCommand;
+import de.mineking.commandutils.options.Autocomplete;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+public interface CommandBinder {
+	String SUFFIX = "_CommandBinder";
+
+	@Nullable
+	Method getCommandMethod() throws ReflectiveOperationException;
+
+	@NotNull
+	Map<String, Method> getAutocompleteMethods() throws ReflectiveOperationException;
+
+	@NotNull
+	List<Class<?>> getSubcommands();
+
+	@Nullable
+	default CommandInvoker getInvoker() {
+		return null;
+	}
+
+	@Nullable
+	default CommandInvoker getAutocompleteInvoker(@NotNull String option) {
+		return null;
+	}
+
+	@NotNull
+	static CommandBinder find(@NotNull Class<?> type) {
+		try {
+			var binder = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+			return (CommandBinder) binder.getConstructor().newInstance();
+		} catch(ClassNotFoundException e) {
+			var schema = CommandUtils.INSTANCE.getSchemaCache();
+			return schema == null ? reflective(type) : schema.binder(type);
+		} catch(ReflectiveOperationException | ClassCastException e) {
+			CommandUtils.INSTANCE.getSLF4JLogger().warn("Failed to load generated binder for " + type.getName() + ", falling back to reflection", e);
+			return reflective(type);
+		}
+	}
+
+	@NotNull
+	static CommandBinder resolved(@NotNull CommandBinder binder) throws ReflectiveOperationException {
+		var method = binder.getCommandMethod();
+		var autocomplete = Map.copyOf(binder.getAutocompleteMethods());
+		var subcommands = List.copyOf(binder.getSubcommands());
+
+		return new CommandBinder() {
+			@Override
+			public @Nullable Method getCommandMethod() {
+				return method;
+			}
+
+			@Override
+			public @NotNull Map<String, Method> getAutocompleteMethods() {
+				return autocomplete;
+			}
+
+			@Override
+			public @NotNull List<Class<?>> getSubcommands() {
+				return subcommands;
+			}
+
+			@Override
+			public @Nullable CommandInvoker getInvoker() {
+				return binder.getInvoker();
+			}
+
+			@Override
+			public @Nullable CommandInvoker getAutocompleteInvoker(@NotNull String option) {
+				return binder.getAutocompleteInvoker(option);
+			}
+		};
+	}
+
+	@NotNull
+	static CommandBinder reflective(@NotNull Class<?> type) {
+		return new CommandBinder() {
+			@Override
+			public @Nullable Method getCommandMethod() {
+				for(var m : type.getMethods()) {
+					if(m.isAnnotationPresent(CommandMethod.class)) return m;
+				}
+
+				return null;
+			}
+
+			@Override
+			public @NotNull Map<String, Method> getAutocompleteMethods() {
+				var result = new HashMap<String, Method>();
+
+				for(var m : type.getMethods()) {
+					var a = m.getAnnotation(Autocomplete.class);
+					if(a != null) result.put(a.value(), m);
+				}
+
+				return result;
+			}
+
+			@Override
+			public @NotNull List<Class<?>> getSubcommands() {
+				return Arrays.stream(type.getClasses())
+						.filter(c -> c.isAnnotationPresent(MinecraftCommand.class))
+						.toList();
+			}
+		};
+	}
+}
@@ -0,0 +1,9 @@
+package de.mineking.commandutils;
+
+import org.jetbrains.annotations.NotNull;
+
+public class CommandFailedException extends RuntimeException {
+	public CommandFailedException(@NotNull String message) {
+		super(message, null, false, false);
+	}
+}
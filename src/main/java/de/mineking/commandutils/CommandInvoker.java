@@ -0,0 +1,84 @@
+package de.mineking.commandutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+@FunctionalInterface
+public interface CommandInvoker {
+	@Nullable
+	Object invoke(@Nullable Object instance, @NotNull Object[] params) throws Throwable;
+
+	default boolean isFastPath() {
+		return false;
+	}
+
+	@NotNull
+	static CommandInvoker of(@NotNull Method method, @NotNull DispatchMode mode) {
+		if(mode == DispatchMode.METHOD_HANDLE) {
+			try {
+				return methodHandle(method);
+			} catch(IllegalAccessException e) {
+				CommandUtils.INSTANCE.getSLF4JLogger().debug("Falling back to reflection for {}: {}", method, e.getMessage());
+			}
+		}
+
+		return reflective(method);
+	}
+
+	@NotNull
+	static CommandInvoker reflective(@NotNull Method method) {
+		return (instance, params) -> {
+			try {
+				return method.invoke(instance, params);
+			} catch(InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+	}
+
+	@NotNull
+	static CommandInvoker methodHandle(@NotNull Method method) throws IllegalAccessException {
+		var handle = MethodHandles.publicLookup().unreflect(method);
+		if(Modifier.isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+
+		var spreader = handle
+				.asType(MethodType.genericMethodType(method.getParameterCount() + 1))
+				.asSpreader(Object[].class, method.getParameterCount());
+
+		return new CommandInvoker() {
+			private final MethodHandle target = spreader;
+
+			@Override
+			public Object invoke(Object instance, @NotNull Object[] params) throws Throwable {
+				return target.invokeExact(instance, params);
+			}
+
+			@Override
+			public boolean isFastPath() {
+				return true;
+			}
+		};
+	}
+
+	@NotNull
+	static CommandInvoker compiled(@NotNull CommandInvoker invoker) {
+		return new CommandInvoker() {
+			@Override
+			public Object invoke(Object instance, @NotNull Object[] params) throws Throwable {
+				return invoker.invoke(instance, params);
+			}
+
+			@Override
+			public boolean isFastPath() {
+				return true;
+			}
+		};
+	}
+}
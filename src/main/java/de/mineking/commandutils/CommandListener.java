@@ -0,0 +1,25 @@
+package de.mineking.commandutils;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+class CommandListener implements Listener {
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onJoin(PlayerJoinEvent event) {
+		CommandUtils.INSTANCE.getPlayerIndex().record(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onWorldChange(PlayerChangedWorldEvent event) {
+		CommandUtils.INSTANCE.invalidatePermissions(event.getPlayer());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onQuit(PlayerQuitEvent event) {
+		CommandUtils.INSTANCE.evictSender(event.getPlayer().getUniqueId());
+	}
+}
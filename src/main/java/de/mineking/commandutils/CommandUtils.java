@@ -1,31 +1,91 @@
 package de.mineking.commandutils;
 
+import de.mineking.commandutils.annotation.MinecraftCommand;
+import de.mineking.commandutils.metrics.CommandMetrics;
+import de.mineking.commandutils.metrics.MetricsRecorder;
+import de.mineking.commandutils.metrics.Tracer;
+import de.mineking.commandutils.options.EnumIndex;
 import de.mineking.commandutils.options.IOptionParser;
 import de.mineking.commandutils.options.Option;
+import de.mineking.commandutils.profile.PlayerIndex;
+import de.mineking.commandutils.profile.ProfileLookup;
 import de.mineking.javautils.reflection.ReflectionUtils;
 import dev.jorel.commandapi.CommandAPI;
 import dev.jorel.commandapi.CommandAPIBukkitConfig;
+import dev.jorel.commandapi.CommandAPICommand;
 import dev.jorel.commandapi.arguments.Argument;
 import dev.jorel.commandapi.executors.CommandArguments;
+import dev.jorel.commandapi.executors.ExecutorType;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public final class CommandUtils extends JavaPlugin {
 	public static CommandUtils INSTANCE;
 
-	private final List<IOptionParser> parsers = new ArrayList<>();
-	private final Set<Command> commands = new HashSet<>();
+	private static final IOptionParser[] BUILTIN_PARSERS = {
+			IOptionParser.INTEGER,
+			IOptionParser.DOUBLE,
+			IOptionParser.LONG,
+			IOptionParser.STRING,
+			IOptionParser.BOOLEAN,
+			IOptionParser.OFFLINE_PLAYER,
+			IOptionParser.PLAYER,
+			IOptionParser.PLAYER_LIST,
+			IOptionParser.ENUM,
+			IOptionParser.OPTIONAL,
+			IOptionParser.ARRAY
+	};
+
+	private final List<ParserEntry> customParsers = new ArrayList<>();
+	private long parserSequence;
+	private volatile ParserRegistry parserRegistry = new ParserRegistry(BUILTIN_PARSERS);
+	private final Map<String, Command> commands = new ConcurrentHashMap<>();
+	private final List<Supplier<Command>> pending = new ArrayList<>();
+	private boolean deferRegistration;
+	private boolean flushScheduled;
+
+	private final AtomicInteger registeredFast = new AtomicInteger();
+	private final AtomicInteger registeredReflective = new AtomicInteger();
+	private final AtomicBoolean summaryScheduled = new AtomicBoolean();
+
+	private final Map<Class<?>, Object> services = new ConcurrentHashMap<>();
+	private final Map<Class<?>, InstanceFactory> factories = new ConcurrentHashMap<>();
+	private final Set<SenderInstances> senderScopes = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	private DispatchMode dispatchMode = DispatchMode.METHOD_HANDLE;
+	private volatile AutocompleteExecutor autocompleteExecutor;
+	private Executor commandExecutor;
+	private volatile MetricsRecorder metrics;
+	private volatile Tracer tracer;
+	private PlayerIndex playerIndex;
+	private volatile PermissionCache permissionCache;
+	private volatile SchemaCache schemaCache;
+	private int suggestionLimit = 100;
+
+	public CommandUtils() {}
+
+	CommandUtils(@NotNull JavaPluginLoader loader, @NotNull PluginDescriptionFile description, @NotNull File dataFolder, @NotNull File file) {
+		super(loader, description, dataFolder, file);
+	}
 
 	@Override
 	public void onLoad() {
@@ -34,27 +94,124 @@ public final class CommandUtils extends JavaPlugin {
 
 	@Override
 	public void onEnable() {
+		setup();
+
+		try {
+			var file = getPlayerIndexFile();
+
+			if(Files.exists(file)) playerIndex.load(file);
+			else playerIndex.seed(getServer().getOfflinePlayers());
+		} catch(IOException e) {
+			getSLF4JLogger().error("Failed to load player index", e);
+		}
+
+		getServer().getScheduler().runTaskLater(this, () -> {
+			synchronized(this) {
+				if(!pending.isEmpty()) return;
+			}
+
+			saveSchemaCache();
+		}, 1);
+
+		getServer().getOnlinePlayers().forEach(p -> playerIndex.record(p.getUniqueId(), p.getName()));
+		getServer().getPluginManager().registerEvents(new CommandListener(), this);
+		getServer().getScheduler().runTask(this, () -> registerCommand(new AdminCommand()));
+	}
+
+	void setup() {
 		INSTANCE = this;
 
-		parsers.add(IOptionParser.INTEGER);
-		parsers.add(IOptionParser.DOUBLE);
-		parsers.add(IOptionParser.LONG);
-		parsers.add(IOptionParser.STRING);
-		parsers.add(IOptionParser.BOOLEAN);
-		parsers.add(IOptionParser.OFFLINE_PLAYER);
-		parsers.add(IOptionParser.PLAYER);
-		parsers.add(IOptionParser.PLAYER_LIST);
-		parsers.add(IOptionParser.ENUM);
-		parsers.add(IOptionParser.OPTIONAL);
-		parsers.add(IOptionParser.ARRAY);
+		autocompleteExecutor = AutocompleteExecutor.fixed(2, 256, 1, TimeUnit.SECONDS);
+		commandExecutor = createCommandExecutor();
+		playerIndex = new PlayerIndex(ProfileLookup.server(), 1024);
+	}
+
+	@Override
+	public void onDisable() {
+		saveSchemaCache();
+
+		var schema = schemaCache;
+		if(schema != null) schema.clear();
+		EnumIndex.unprimeAll();
+
+		if(playerIndex != null) {
+			try {
+				playerIndex.save(getPlayerIndexFile());
+			} catch(IOException e) {
+				getSLF4JLogger().error("Failed to save player index", e);
+			}
+		}
+
+		if(autocompleteExecutor != null) autocompleteExecutor.shutdown();
+		if(commandExecutor instanceof ExecutorService service) service.shutdown();
+	}
+
+	@NotNull
+	private Path getSchemaCacheFile() {
+		return getDataFolder().toPath().resolve("schema.bin");
+	}
+
+	@NotNull
+	private Path getPlayerIndexFile() {
+		return getDataFolder().toPath().resolve("players.txt");
+	}
+
+	@NotNull
+	private static Executor createCommandExecutor() {
+		try {
+			return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch(ReflectiveOperationException e) {
+			var counter = new AtomicInteger();
+
+			return Executors.newCachedThreadPool(r -> {
+				var thread = new Thread(r, "CommandUtils Command #" + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
 	}
 
 	@NotNull
 	public CommandUtils registerOptionParser(@NotNull IOptionParser parser) {
-		parsers.add(0, parser);
+		return registerOptionParser(parser, 0);
+	}
+
+	@NotNull
+	public CommandUtils registerOptionParser(@NotNull IOptionParser parser, int priority) {
+		synchronized(customParsers) {
+			customParsers.add(new ParserEntry(parser, priority, parserSequence++));
+			publishParsers();
+		}
+
 		return this;
 	}
 
+	public boolean unregisterOptionParser(@NotNull IOptionParser parser) {
+		synchronized(customParsers) {
+			if(!customParsers.removeIf(e -> e.parser() == parser)) return false;
+
+			publishParsers();
+			return true;
+		}
+	}
+
+	@NotNull
+	public List<IOptionParser> getOptionParsers() {
+		return List.of(parserRegistry.parsers());
+	}
+
+	private void publishParsers() {
+		var parsers = customParsers.stream()
+				.sorted(Comparator.comparingInt(ParserEntry::priority).thenComparingLong(ParserEntry::sequence).reversed())
+				.map(ParserEntry::parser)
+				.toArray(IOptionParser[]::new);
+
+		var all = Arrays.copyOf(parsers, parsers.length + BUILTIN_PARSERS.length);
+		System.arraycopy(BUILTIN_PARSERS, 0, all, parsers.length, BUILTIN_PARSERS.length);
+
+		parserRegistry = new ParserRegistry(all);
+	}
+
 	@NotNull
 	public CommandUtils registerOptionParser(@NotNull Function<String, Argument<?>> type) {
 		var temp = type.apply("");
@@ -76,36 +233,528 @@ public final class CommandUtils extends JavaPlugin {
 		});
 	}
 
+	@NotNull
+	public CommandUtils setDispatchMode(@NotNull DispatchMode mode) {
+		this.dispatchMode = mode;
+		return this;
+	}
+
+	@NotNull
+	public DispatchMode getDispatchMode() {
+		return dispatchMode;
+	}
+
+	@NotNull
+	public CommandUtils setAutocompleteExecutor(@NotNull AutocompleteExecutor executor) {
+		var previous = autocompleteExecutor;
+		autocompleteExecutor = executor;
+
+		if(previous != null) previous.shutdown();
+		return this;
+	}
+
+	@NotNull
+	public AutocompleteExecutor getAutocompleteExecutor() {
+		return autocompleteExecutor;
+	}
+
+	@NotNull
+	public CommandUtils setSuggestionLimit(int limit) {
+		if(limit <= 0) throw new IllegalArgumentException("limit must be positive");
+		this.suggestionLimit = limit;
+		return this;
+	}
+
+	public int getSuggestionLimit() {
+		return suggestionLimit;
+	}
+
+	@NotNull
+	public CommandUtils setCommandExecutor(@NotNull Executor executor) {
+		this.commandExecutor = executor;
+		return this;
+	}
+
+	@NotNull
+	public Executor getCommandExecutor() {
+		return commandExecutor;
+	}
+
+	@NotNull
+	public CompletableFuture<Void> runSync(@NotNull Runnable task) {
+		return callSync(() -> {
+			task.run();
+			return null;
+		});
+	}
+
+	@NotNull
+	public <T> CompletableFuture<T> callSync(@NotNull Supplier<T> task) {
+		var future = new CompletableFuture<T>();
+
+		Runnable runnable = () -> {
+			try {
+				future.complete(task.get());
+			} catch(Throwable e) {
+				future.completeExceptionally(e);
+			}
+		};
+
+		if(getServer().isPrimaryThread()) runnable.run();
+		else getServer().getScheduler().runTask(this, runnable);
+
+		return future;
+	}
+
+	@NotNull
+	public CommandUtils setMetrics(@Nullable MetricsRecorder metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+
+	@NotNull
+	public CommandUtils enableMetrics() {
+		return setMetrics(new CommandMetrics());
+	}
+
+	@NotNull
+	public CommandUtils setSchemaCache(@Nullable SchemaCache cache) {
+		var previous = schemaCache;
+		this.schemaCache = cache;
+
+		if(previous != null && previous != cache) previous.clear();
+
+		if(cache != null && cache != previous) {
+			try {
+				cache.load(getSchemaCacheFile());
+			} catch(IOException e) {
+				getSLF4JLogger().warn("Failed to load command schema cache", e);
+			}
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public CommandUtils enableSchemaCache() {
+		return setSchemaCache(new SchemaCache());
+	}
+
+	@Nullable
+	public SchemaCache getSchemaCache() {
+		return schemaCache;
+	}
+
+	public void saveSchemaCache() {
+		var cache = schemaCache;
+		if(cache == null) return;
+
+		getSLF4JLogger().debug(cache.getReport());
+
+		try {
+			cache.save(getSchemaCacheFile());
+		} catch(IOException e) {
+			getSLF4JLogger().warn("Failed to save command schema cache", e);
+		}
+	}
+
+	@NotNull
+	public CommandUtils setPermissionCache(@Nullable PermissionCache cache) {
+		var previous = permissionCache;
+		this.permissionCache = cache;
+
+		if(previous != cache && !commands.isEmpty()) runSync(() -> getServer().getOnlinePlayers().forEach(Player::updateCommands));
+		return this;
+	}
+
+	@NotNull
+	public CommandUtils enablePermissionCache() {
+		return setPermissionCache(new PermissionCache(1000, 256));
+	}
+
+	@Nullable
+	public PermissionCache getPermissionCache() {
+		return permissionCache;
+	}
+
+	public boolean hasPermission(@NotNull CommandSender sender, @NotNull String node) {
+		var cache = permissionCache;
+		return cache == null ? sender.hasPermission(node) : cache.hasPermission(sender, node);
+	}
+
+	public void invalidatePermissions(@NotNull Player player) {
+		var cache = permissionCache;
+		if(cache == null) return;
+
+		cache.invalidate(player.getUniqueId());
+		runSync(player::updateCommands);
+	}
+
+	public void invalidatePermissions() {
+		var cache = permissionCache;
+		if(cache == null) return;
+
+		cache.invalidate();
+		runSync(() -> getServer().getOnlinePlayers().forEach(Player::updateCommands));
+	}
+
+	@NotNull
+	public PlayerIndex getPlayerIndex() {
+		return playerIndex;
+	}
+
+	@NotNull
+	public CommandUtils setProfileLookup(@NotNull ProfileLookup lookup) {
+		playerIndex.setLookup(lookup);
+		return this;
+	}
+
+	@NotNull
+	public CommandUtils setTracer(@Nullable Tracer tracer) {
+		this.tracer = tracer;
+		return this;
+	}
+
+	@NotNull
+	public CommandUtils enableTracing(double sampleRate, long slowThreshold, @NotNull TimeUnit unit) {
+		return setTracer(new Tracer(256, sampleRate, slowThreshold, unit));
+	}
+
+	@Nullable
+	public Tracer getTracer() {
+		return tracer;
+	}
+
+	@Nullable
+	public MetricsRecorder getMetrics() {
+		return metrics;
+	}
+
 	@NotNull
 	public CommandUtils registerCommand(@NotNull Command command) {
-		commands.add(command);
-		command.build().register();
+		if(deferRegistration) return defer(() -> command);
+
+		register(command, command.build());
+		return this;
+	}
+
+	@Nullable
+	private Map.Entry<Command, CommandAPICommand> build(@NotNull Supplier<Command> supplier) {
+		try {
+			var command = supplier.get();
+			return Map.entry(command, command.build());
+		} catch(Exception e) {
+			getSLF4JLogger().error("Failed to build command", e);
+			return null;
+		}
+	}
+
+	private void register(@NotNull Command command, @NotNull CommandAPICommand built) {
+		built.register();
+
+		synchronized(commands) {
+			commands.put(command.getName().toLowerCase(Locale.ROOT), command);
+			command.getAliases().forEach(a -> commands.put(a.toLowerCase(Locale.ROOT), command));
+		}
+
+		var fastPath = command instanceof AnnotatedCommand ac && ac.isFastPath();
+		getSLF4JLogger().debug("Registered command '{}' ({} dispatch)", command.getName(), fastPath ? "method handle" : "reflective");
+
+		(fastPath ? registeredFast : registeredReflective).incrementAndGet();
+		if(!summaryScheduled.getAndSet(true)) getServer().getScheduler().runTask(this, this::logRegistrationSummary);
+	}
+
+	private void logRegistrationSummary() {
+		summaryScheduled.set(false);
+
+		var fast = registeredFast.getAndSet(0);
+		var reflective = registeredReflective.getAndSet(0);
+
+		getSLF4JLogger().info("Registered {} commands ({} method handle, {} reflective dispatch)", fast + reflective, fast, reflective);
+	}
+
+	@NotNull
+	public CommandUtils setDeferRegistration(boolean defer) {
+		this.deferRegistration = defer;
+		if(!defer) flushCommands();
+		return this;
+	}
+
+	public boolean isDeferRegistration() {
+		return deferRegistration;
+	}
+
+	@NotNull
+	private synchronized CommandUtils defer(@NotNull Supplier<Command> command) {
+		pending.add(command);
+
+		if(!flushScheduled) {
+			flushScheduled = true;
+			getServer().getScheduler().runTask(this, this::flushCommands);
+		}
+
+		return this;
+	}
+
+	@NotNull
+	public CommandUtils flushCommands() {
+		List<Supplier<Command>> batch;
+
+		synchronized(this) {
+			batch = new ArrayList<>(pending);
+			pending.clear();
+			flushScheduled = false;
+		}
+
+		if(batch.isEmpty()) return this;
+
+		batch.parallelStream().forEach(s -> {
+			if(s instanceof DeferredBinding d) d.prepare();
+		});
+
+		runSync(() -> {
+			var start = System.nanoTime();
+			var registered = 0;
+
+			for(var supplier : batch) {
+				var e = build(supplier);
+				if(e == null) continue;
+
+				try {
+					register(e.getKey(), e.getValue());
+					registered++;
+				} catch(Exception ex) {
+					getSLF4JLogger().error("Failed to register command '{}'", e.getKey().getName(), ex);
+				}
+			}
+
+			getSLF4JLogger().debug("Built and registered {} commands in {} ms", registered, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+			saveSchemaCache();
+		});
+
 		return this;
 	}
 
 	@NotNull
 	public Command findCommand(@NotNull String name) {
-		return commands.stream()
-				.filter(c -> c.getName().equals(name))
-				.findFirst().orElseThrow();
+		var command = commands.get(name.toLowerCase(Locale.ROOT));
+		if(command == null) throw new NoSuchElementException("Unknown command '" + name + "'");
+		return command;
+	}
+
+	@NotNull
+	public Command resolveCommand(@NotNull String path) {
+		var parts = path.trim().split(" +");
+		var command = findCommand(parts[0]);
+
+		for(int i = 1; i < parts.length; i++) {
+			var sub = command.getSubcommand(parts[i]);
+			if(sub == null) throw new NoSuchElementException("Unknown subcommand '" + parts[i] + "' of '" + command.getPath() + "'");
+			command = sub;
+		}
+
+		return command;
+	}
+
+	/**
+	 * Executes a command without going through Brigadier. See {@link #execute(List)} for the semantics.
+	 */
+	public void execute(@NotNull String path, @NotNull CommandSender sender, @NotNull Map<String, Object> args) {
+		var result = execute(List.of(new Invocation(path, sender, args)));
+		if(result.isSuccess()) return;
+
+		var error = result.failures().get(0).error();
+		if(error instanceof RuntimeException e) throw e;
+		if(error instanceof Error e) throw e;
+
+		throw new IllegalStateException("Failed to execute '" + path + "'", error);
+	}
+
+	/**
+	 * Executes the given invocations in order on the calling thread. Command and option permissions and executor types are checked for every invocation.
+	 * Argument values have to be of the parameter type, a single element is wrapped for {@code Optional}, array and collection options.
+	 * Options that are entered as a string in the game (strings, enums and {@code CompletableFuture<OfflinePlayer>}) also accept that string.
+	 * <p>
+	 * Rate limits are not applied and commands declared as {@code async} still run on the calling thread, so that the returned result covers every execution.
+	 */
+	@NotNull
+	public BatchResult execute(@NotNull List<Invocation> invocations) {
+		var resolved = new HashMap<String, Command>();
+		var arguments = new IdentityHashMap<Map<String, Object>, CommandArguments>();
+		var failures = new ArrayList<BatchResult.Failure>();
+
+		var metrics = this.metrics;
+		var start = System.nanoTime();
+
+		for(int i = 0; i < invocations.size(); i++) {
+			var invocation = invocations.get(i);
+			var begin = metrics == null ? 0 : System.nanoTime();
+
+			Command command = null;
+			var type = ExecutorType.ALL;
+
+			try {
+				command = resolved.computeIfAbsent(invocation.path(), this::resolveCommand);
+				if(!command.hasPermission(invocation.sender())) throw new IllegalStateException(invocation.sender().getName() + " does not have permission to execute '" + command.getPath() + "'");
+				if(!command.accepts(invocation.sender())) throw new IllegalArgumentException("Command '" + command.getPath() + "' cannot be executed by " + invocation.sender().getName());
+
+				for(var option : invocation.args().keySet()) {
+					var node = command.getOptionPermission(option);
+					if(node != null && !hasPermission(invocation.sender(), node)) throw new IllegalStateException(invocation.sender().getName() + " does not have permission to use option '" + option + "' of '" + command.getPath() + "'");
+				}
+
+				var path = command.getPath();
+				type = command.getExecutorType(invocation.sender());
+				command.performTyped(invocation.sender(), type, arguments.computeIfAbsent(invocation.args(), a -> {
+					var map = new LinkedHashMap<>(a);
+					return new CommandArguments(map.values().toArray(), map, new String[0], Map.of(), "/" + path);
+				}));
+
+				if(metrics != null) metrics.recordExecution(path, type, System.nanoTime() - begin, false);
+			} catch(Throwable e) {
+				failures.add(new BatchResult.Failure(i, invocation, e));
+				if(metrics != null && command != null) metrics.recordExecution(command.getPath(), type, System.nanoTime() - begin, true);
+			}
+		}
+
+		return new BatchResult(invocations.size(), System.nanoTime() - start, failures);
+	}
+
+	@NotNull
+	public Collection<Command> getCommands() {
+		return Collections.unmodifiableSet(new HashSet<>(commands.values()));
+	}
+
+	public boolean unregisterCommand(@NotNull String name) {
+		Command command;
+
+		synchronized(commands) {
+			command = commands.get(name.toLowerCase(Locale.ROOT));
+			if(command == null) return false;
+
+			commands.remove(command.getName().toLowerCase(Locale.ROOT), command);
+			command.getAliases().forEach(a -> commands.remove(a.toLowerCase(Locale.ROOT), command));
+		}
+
+		CommandAPI.unregister(command.getName(), true);
+		command.getAliases().forEach(a -> CommandAPI.unregister(a, true));
+
+		invalidate(command);
+
+		getServer().getOnlinePlayers().forEach(Player::updateCommands);
+		getSLF4JLogger().info("Unregistered command '{}'", command.getName());
+		return true;
+	}
+
+	@NotNull
+	public CommandUtils reloadCommand(@NotNull Class<?> type) {
+		return reloadCommand(type, InstanceProvider.forCommand(type));
+	}
+
+	@NotNull
+	public CommandUtils reloadCommand(@NotNull Class<?> type, @NotNull BiFunction<CommandSender, CommandArguments, Object> instance) {
+		var info = type.getAnnotation(MinecraftCommand.class);
+		if(info == null) throw new IllegalArgumentException(type.getName() + " is not annotated with @MinecraftCommand");
+
+		unregisterCommand(info.name());
+
+		var command = AnnotatedCommand.get(type, instance);
+		register(command, command.build());
+		return this;
+	}
+
+	private void invalidate(@NotNull Command command) {
+		if(command instanceof AnnotatedCommand ac) {
+			var registry = parserRegistry;
+
+			var params = ac.getParameters();
+
+			registry.cache().keySet().removeIf(k -> params.contains(k.param()));
+			for(var p : registry.parsers()) p.invalidate(params);
+
+			factories.remove(ac.type);
+
+			var schema = schemaCache;
+			if(schema != null) schema.invalidate(ac.type);
+		}
+
+		command.getSubcommands().forEach(this::invalidate);
 	}
 
 	@NotNull
 	public CommandUtils registerCommand(@NotNull Class<?> type, @NotNull BiFunction<CommandSender, CommandArguments, Object> instance) {
-		return registerCommand(AnnotatedCommand.get(type, instance));
+		if(deferRegistration) return defer(new DeferredBinding(type, instance));
+		return registerCommand(bind(type, instance, CommandBinder::find));
+	}
+
+	@NotNull
+	private AnnotatedCommand bind(@NotNull Class<?> type, @NotNull BiFunction<CommandSender, CommandArguments, Object> instance, @NotNull Function<Class<?>, CommandBinder> binders) {
+		var start = System.nanoTime();
+		var command = AnnotatedCommand.get(type, instance, binders);
+
+		var schema = schemaCache;
+		if(schema != null) schema.record(type, System.nanoTime() - start);
+
+		return command;
 	}
 
 	@NotNull
 	public CommandUtils registerCommand(@NotNull Class<?> type) {
-		var instance = createInstance(type);
-		return registerCommand(type, (s, a) -> instance);
+		return registerCommand(type, InstanceProvider.forCommand(type));
+	}
+
+	@NotNull
+	public <T> CommandUtils registerService(@NotNull Class<T> type, @NotNull T service) {
+		services.put(type, service);
+		factories.clear();
+		return this;
+	}
+
+	@Nullable
+	public <T> T getService(@NotNull Class<T> type) {
+		var service = services.get(type);
+		if(service != null) return type.cast(service);
+
+		var matches = services.values().stream().filter(type::isInstance).distinct().toList();
+		if(matches.size() > 1) throw new IllegalStateException("Multiple services are assignable to " + type.getName() + ", register one for that type explicitly");
+
+		return matches.isEmpty() ? null : type.cast(matches.get(0));
+	}
+
+	@Nullable
+	Object getExactService(@NotNull Class<?> type) {
+		return services.get(type);
+	}
+
+	void registerSenderScope(@NotNull SenderInstances scope) {
+		senderScopes.add(scope);
+	}
+
+	void evictSender(@NotNull UUID id) {
+		var cache = permissionCache;
+		if(cache != null) cache.invalidate(id);
+
+		synchronized(senderScopes) {
+			senderScopes.forEach(s -> s.evict(id));
+		}
 	}
 
 	@NotNull
 	public IOptionParser findParser(@NotNull Type type, @NotNull Parameter param) {
-		return parsers.stream()
-				.filter(p -> p.accepts(type, param))
-				.findFirst().orElseThrow();
+		var registry = parserRegistry;
+		var key = new ParserKey(type, param);
+
+		var parser = registry.cache().get(key);
+		if(parser != null) return parser;
+
+		return registry.cache().computeIfAbsent(key, k -> {
+			for(var p : registry.parsers()) {
+				if(p.accepts(type, param)) return p;
+			}
+
+			throw new NoSuchElementException("No option parser for " + type.getTypeName());
+		});
 	}
 
 	@NotNull
@@ -120,19 +769,57 @@ public final class CommandUtils extends JavaPlugin {
 
 	@NotNull
 	public Object createInstance(@NotNull Class<?> type) {
-		var c = type.getConstructors()[0];
+		return createInstance(type, null);
+	}
 
-		try {
-			var params = new Object[c.getParameterCount()];
+	@NotNull
+	public Object createInstance(@NotNull Class<?> type, @Nullable CommandSender sender) {
+		return getInstanceFactory(type).create(sender);
+	}
+
+	@NotNull
+	InstanceFactory getInstanceFactory(@NotNull Class<?> type) {
+		return factories.computeIfAbsent(type, t -> InstanceFactory.create(this, t));
+	}
 
-			for(int i = 0; i < c.getParameterCount(); i++) {
-				var p = c.getParameters()[i];
+	private final class DeferredBinding implements Supplier<Command> {
+		private final Class<?> type;
+		private final BiFunction<CommandSender, CommandArguments, Object> instance;
+		private final Map<Class<?>, CommandBinder> binders = new ConcurrentHashMap<>();
+
+		private DeferredBinding(@NotNull Class<?> type, @NotNull BiFunction<CommandSender, CommandArguments, Object> instance) {
+			this.type = type;
+			this.instance = instance;
+		}
+
+		private void prepare() {
+			try {
+				prepare(type);
+			} catch(Exception e) {
+				getSLF4JLogger().debug("Failed to prepare binder for {}, binding it on registration", type.getName(), e);
 			}
+		}
 
-			return c.newInstance(params);
-		} catch(Exception e) {
-			getSLF4JLogger().error("Error creating command instance", e);
-			return null;
+		private void prepare(@NotNull Class<?> type) throws ReflectiveOperationException {
+			var binder = CommandBinder.resolved(CommandBinder.find(type));
+			binders.put(type, binder);
+
+			for(var c : binder.getSubcommands()) prepare(c);
+		}
+
+		@Override
+		public Command get() {
+			return bind(type, instance, t -> binders.computeIfAbsent(t, CommandBinder::find));
+		}
+	}
+
+	private record ParserKey(@NotNull Type type, @NotNull Parameter param) {}
+
+	private record ParserEntry(@NotNull IOptionParser parser, int priority, long sequence) {}
+
+	private record ParserRegistry(@NotNull IOptionParser[] parsers, @NotNull Map<ParserKey, IOptionParser> cache) {
+		ParserRegistry(@NotNull IOptionParser[] parsers) {
+			this(parsers, new ConcurrentHashMap<>());
 		}
 	}
 }
@@ -0,0 +1,84 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.options.*;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+
+final class DirectInvoker {
+	private static final MethodType TYPE = MethodType.methodType(Object.class, Object.class, CommandSender.class, CommandArguments.class);
+
+	private static final MethodHandle RESOLVE;
+	private static final MethodHandle PARSE_INT;
+	private static final MethodHandle PARSE_LONG;
+	private static final MethodHandle PARSE_DOUBLE;
+
+	static {
+		try {
+			var lookup = MethodHandles.publicLookup();
+			var parse = MethodType.methodType(void.class, CommandArguments.class, String.class, Type.class, Parameter.class, Option.class);
+
+			RESOLVE = lookup.findVirtual(ParameterResolver.class, "resolve", MethodType.methodType(Object.class, CommandSender.class, CommandArguments.class));
+			PARSE_INT = lookup.findVirtual(IntOptionParser.class, "parseInt", parse.changeReturnType(int.class).appendParameterTypes(int.class));
+			PARSE_LONG = lookup.findVirtual(LongOptionParser.class, "parseLong", parse.changeReturnType(long.class).appendParameterTypes(long.class));
+			PARSE_DOUBLE = lookup.findVirtual(DoubleOptionParser.class, "parseDouble", parse.changeReturnType(double.class).appendParameterTypes(double.class));
+		} catch(ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final MethodHandle handle;
+
+	private DirectInvoker(@NotNull MethodHandle handle) {
+		this.handle = handle;
+	}
+
+	@Nullable
+	Object invoke(@Nullable Object instance, @NotNull CommandSender sender, @NotNull CommandArguments args) throws Throwable {
+		return (Object) handle.invokeExact(instance, sender, args);
+	}
+
+	@NotNull
+	static MethodHandle resolver(@NotNull ParameterResolver resolver, @NotNull Class<?> type) {
+		return RESOLVE.bindTo(resolver).asType(MethodType.methodType(type, CommandSender.class, CommandArguments.class));
+	}
+
+	@Nullable
+	static MethodHandle primitive(@NotNull IOptionParser parser, @NotNull Class<?> type, @NotNull String name, @NotNull Type generic, @NotNull Parameter param, @NotNull Option info, @NotNull Object defaultValue) {
+		MethodHandle handle;
+
+		if(type == int.class && parser instanceof IntOptionParser) handle = PARSE_INT;
+		else if(type == long.class && parser instanceof LongOptionParser) handle = PARSE_LONG;
+		else if(type == double.class && parser instanceof DoubleOptionParser) handle = PARSE_DOUBLE;
+		else return null;
+
+		return MethodHandles.dropArguments(MethodHandles.insertArguments(handle.bindTo(parser), 1, name, generic, param, info, defaultValue), 0, CommandSender.class);
+	}
+
+	@NotNull
+	static DirectInvoker of(@NotNull Method method, @NotNull MethodHandle[] resolvers) throws IllegalAccessException {
+		var handle = MethodHandles.publicLookup().unreflect(method);
+		if(Modifier.isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+
+		handle = handle.asType(handle.type().changeParameterType(0, Object.class).changeReturnType(Object.class));
+
+		for(int i = 0; i < resolvers.length; i++) handle = MethodHandles.collectArguments(handle, 1 + 2 * i, resolvers[i]);
+
+		var reorder = new int[1 + 2 * resolvers.length];
+		for(int i = 0; i < resolvers.length; i++) {
+			reorder[1 + 2 * i] = 1;
+			reorder[2 + 2 * i] = 2;
+		}
+
+		return new DirectInvoker(MethodHandles.permuteArguments(handle, TYPE, reorder));
+	}
+}
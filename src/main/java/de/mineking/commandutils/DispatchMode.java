@@ -0,0 +1,6 @@
+package de.mineking.commandutils;
+
+public enum DispatchMode {
+	METHOD_HANDLE,
+	REFLECTION
+}
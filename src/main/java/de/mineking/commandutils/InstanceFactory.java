@@ -0,0 +1,90 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.annotation.CommandConstructor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.function.Function;
+
+final class InstanceFactory {
+	private final Constructor<?> constructor;
+	private final Function<CommandSender, Object>[] arguments;
+	private final boolean requiresSender;
+
+	@SuppressWarnings("unchecked")
+	private InstanceFactory(@NotNull CommandUtils manager, @NotNull Class<?> type) {
+		this.constructor = findConstructor(type);
+		this.arguments = new Function[constructor.getParameterCount()];
+
+		var requiresSender = false;
+		var params = constructor.getParameterTypes();
+
+		for(int i = 0; i < params.length; i++) {
+			var p = params[i];
+
+			var exact = manager.getExactService(p);
+
+			if(exact != null) arguments[i] = s -> exact;
+			else if(p.isInstance(manager)) arguments[i] = s -> manager;
+			else if(CommandSender.class.isAssignableFrom(p)) {
+				requiresSender = true;
+				arguments[i] = s -> {
+					if(!p.isInstance(s)) throw new IllegalStateException(type.getName() + " requires a " + p.getSimpleName() + " sender");
+					return s;
+				};
+			} else {
+				var service = manager.getService(p);
+				if(service == null) throw new IllegalStateException("No service registered for " + p.getName() + " (required by " + type.getName() + ")");
+
+				arguments[i] = s -> service;
+			}
+		}
+
+		this.requiresSender = requiresSender;
+	}
+
+	@NotNull
+	private static Constructor<?> findConstructor(@NotNull Class<?> type) {
+		var constructors = type.getConstructors();
+		if(constructors.length == 0) throw new IllegalArgumentException(type.getName() + " has no public constructor");
+
+		var annotated = Arrays.stream(constructors).filter(c -> c.isAnnotationPresent(CommandConstructor.class)).toList();
+		if(annotated.size() > 1) throw new IllegalArgumentException(type.getName() + " has multiple constructors annotated with @CommandConstructor");
+		if(annotated.size() == 1) return annotated.get(0);
+
+		if(constructors.length > 1) throw new IllegalArgumentException(type.getName() + " has multiple public constructors, annotate the one to use with @CommandConstructor");
+		return constructors[0];
+	}
+
+	@NotNull
+	static InstanceFactory create(@NotNull CommandUtils manager, @NotNull Class<?> type) {
+		return new InstanceFactory(manager, type);
+	}
+
+	@NotNull
+	Class<?> getType() {
+		return constructor.getDeclaringClass();
+	}
+
+	boolean requiresSender() {
+		return requiresSender;
+	}
+
+	@NotNull
+	Object create(@Nullable CommandSender sender) {
+		var params = new Object[arguments.length];
+		for(int i = 0; i < params.length; i++) params[i] = arguments[i].apply(sender);
+
+		try {
+			return constructor.newInstance(params);
+		} catch(InvocationTargetException e) {
+			throw new IllegalStateException("Error creating instance of " + constructor.getDeclaringClass().getName(), e.getCause());
+		} catch(ReflectiveOperationException e) {
+			throw new IllegalStateException("Error creating instance of " + constructor.getDeclaringClass().getName(), e);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.annotation.InstanceScope;
+import de.mineking.commandutils.annotation.MinecraftCommand;
+import de.mineking.commandutils.annotation.Scope;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.BiFunction;
+
+public final class InstanceProvider {
+	private InstanceProvider() {}
+
+	@NotNull
+	public static BiFunction<CommandSender, CommandArguments, Object> of(@NotNull Class<?> type) {
+		var scope = type.getAnnotation(Scope.class);
+		return scope == null ? of(type, InstanceScope.SINGLETON, 0) : of(type, scope.value(), scope.maxSize());
+	}
+
+	@NotNull
+	public static BiFunction<CommandSender, CommandArguments, Object> eager(@NotNull Class<?> type) {
+		var provider = of(type);
+		if(provider instanceof Singleton s) s.create();
+		return provider;
+	}
+
+	@NotNull
+	static BiFunction<CommandSender, CommandArguments, Object> forCommand(@NotNull Class<?> type) {
+		var info = type.getAnnotation(MinecraftCommand.class);
+		return info != null && info.async() ? eager(type) : of(type);
+	}
+
+	@NotNull
+	public static BiFunction<CommandSender, CommandArguments, Object> of(@NotNull Class<?> type, @NotNull InstanceScope scope, int maxSize) {
+		var factory = CommandUtils.INSTANCE.getInstanceFactory(type);
+		if(scope == InstanceScope.SINGLETON && factory.requiresSender()) throw new IllegalArgumentException(type.getName() + " requires a sender and cannot use the SINGLETON scope");
+
+		return switch(scope) {
+			case SINGLETON -> new Singleton(factory);
+			case SENDER -> new SenderInstances(factory, maxSize);
+			case INVOCATION -> (s, a) -> factory.create(s);
+		};
+	}
+
+	private static final class Singleton implements BiFunction<CommandSender, CommandArguments, Object> {
+		private final InstanceFactory factory;
+		private volatile Object instance;
+
+		private Singleton(@NotNull InstanceFactory factory) {
+			this.factory = factory;
+		}
+
+		@Override
+		public Object apply(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+			return get();
+		}
+
+		@NotNull
+		private Object get() {
+			var instance = this.instance;
+			if(instance != null) return instance;
+
+			if(!CommandUtils.INSTANCE.getServer().isPrimaryThread()) throw new IllegalStateException("Singleton instance of " + factory.getType().getName() + " has not been created yet and cannot be created off the main thread");
+			return create();
+		}
+
+		@NotNull
+		private synchronized Object create() {
+			if(instance == null) instance = factory.create(null);
+			return instance;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package de.mineking.commandutils;
+
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+public record Invocation(@NotNull String path, @NotNull CommandSender sender, @NotNull Map<String, Object> args) {
+	@NotNull
+	public static Invocation of(@NotNull String path, @NotNull CommandSender sender) {
+		return new Invocation(path, sender, Map.of());
+	}
+}
@@ -0,0 +1,17 @@
+package de.mineking.commandutils;
+
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+@FunctionalInterface
+public interface ParameterResolver {
+	@Nullable
+	Object resolve(@NotNull CommandSender sender, @NotNull CommandArguments args);
+
+	@NotNull
+	static ParameterResolver sender(@NotNull Class<?> type) {
+		return (sender, args) -> type.isInstance(sender) ? sender : null;
+	}
+}
@@ -0,0 +1,106 @@
+package de.mineking.commandutils;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PermissionCache {
+	private final int maxNodes;
+	private final Map<UUID, Map<String, Boolean>> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public PermissionCache(int maxSenders, int maxNodes) {
+		this.maxNodes = maxNodes;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<UUID, Map<String, Boolean>> eldest) {
+				return size() > maxSenders;
+			}
+		};
+	}
+
+	public boolean hasPermission(@NotNull CommandSender sender, @NotNull String node) {
+		if(!(sender instanceof Player player)) return sender.hasPermission(node);
+
+		Map<String, Boolean> nodes;
+
+		synchronized(entries) {
+			nodes = entries.computeIfAbsent(player.getUniqueId(), id -> createNodes());
+		}
+
+		Boolean cached;
+
+		synchronized(nodes) {
+			cached = nodes.get(node);
+		}
+
+		if(cached != null) {
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+
+		var result = sender.hasPermission(node);
+
+		synchronized(nodes) {
+			nodes.put(node, result);
+		}
+
+		return result;
+	}
+
+	@NotNull
+	private Map<String, Boolean> createNodes() {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > maxNodes;
+			}
+		};
+	}
+
+	public void invalidate(@NotNull UUID id) {
+		synchronized(entries) {
+			entries.remove(id);
+		}
+	}
+
+	public void invalidate() {
+		synchronized(entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized(entries) {
+			return entries.values().stream().mapToInt(nodes -> {
+				synchronized(nodes) {
+					return nodes.size();
+				}
+			}).sum();
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public double getHitRate() {
+		var hits = getHits();
+		var total = hits + getMisses();
+
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
@@ -0,0 +1,119 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.annotation.RateLimit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RateLimiter {
+	private static final UUID GLOBAL = new UUID(0, 0);
+	public static final int DEFAULT_MAX_ENTRIES = 4096;
+	private static final long CLEANUP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	private final long period;
+	private final long interval;
+	private final int maxEntries;
+
+	private final boolean global;
+	private final String message;
+
+	private final Map<UUID, AtomicLong> buckets = new ConcurrentHashMap<>();
+	private final AtomicLong nextCleanup = new AtomicLong(System.nanoTime() + CLEANUP_INTERVAL);
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	public RateLimiter(int permits, long period, @NotNull TimeUnit unit, boolean global, @NotNull String message, int maxEntries) {
+		if(permits <= 0) throw new IllegalArgumentException("permits has to be positive");
+		if(period <= 0) throw new IllegalArgumentException("period has to be positive");
+		if(maxEntries <= 0) throw new IllegalArgumentException("maxEntries has to be positive");
+
+		this.period = unit.toNanos(period);
+		this.interval = this.period / permits;
+		this.maxEntries = maxEntries;
+
+		this.global = global;
+		this.message = message;
+	}
+
+	public RateLimiter(int permits, long period, @NotNull TimeUnit unit, boolean global, @NotNull String message) {
+		this(permits, period, unit, global, message, DEFAULT_MAX_ENTRIES);
+	}
+
+	public RateLimiter(int permits, long period, @NotNull TimeUnit unit) {
+		this(permits, period, unit, false, "You are using this command too often, please wait a moment");
+	}
+
+	@NotNull
+	public static RateLimiter of(@NotNull RateLimit info) {
+		return new RateLimiter(info.permits(), info.period(), info.unit(), info.global(), info.message(), info.maxEntries());
+	}
+
+	@NotNull
+	public String getMessage() {
+		return message;
+	}
+
+	public boolean tryAcquire(@NotNull CommandSender sender) {
+		if(global) return tryAcquire(GLOBAL);
+		return !(sender instanceof Entity e) || tryAcquire(e.getUniqueId());
+	}
+
+	public boolean tryAcquire(@NotNull UUID key) {
+		var now = System.nanoTime();
+
+		var cleanup = nextCleanup.get();
+		if(now - cleanup >= 0 && nextCleanup.compareAndSet(cleanup, now + CLEANUP_INTERVAL)) cleanup(now);
+
+		var bucket = buckets.get(key);
+		if(bucket == null) {
+			if(buckets.size() >= maxEntries && evicting.compareAndSet(false, true)) {
+				try {
+					evict(now);
+				} finally {
+					evicting.set(false);
+				}
+			}
+
+			bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+		}
+
+		while(true) {
+			var current = bucket.get();
+			var next = Math.max(current - now, 0) + interval;
+
+			if(next > period) return false;
+			if(bucket.compareAndSet(current, now + next)) return true;
+		}
+	}
+
+	public void reset(@NotNull UUID key) {
+		buckets.remove(key);
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+
+	private void cleanup(long now) {
+		buckets.values().removeIf(b -> b.get() - now <= 0);
+	}
+
+	private void evict(long now) {
+		cleanup(now);
+
+		var excess = buckets.size() - maxEntries + Math.max(1, maxEntries / 8);
+		if(excess <= 0) return;
+
+		var times = buckets.values().stream().mapToLong(AtomicLong::get).sorted().toArray();
+		if(times.length == 0) return;
+
+		var threshold = times[Math.min(excess, times.length) - 1];
+		buckets.values().removeIf(b -> b.get() - threshold <= 0);
+	}
+}
@@ -0,0 +1,444 @@
+package de.mineking.commandutils;
+
+import de.mineking.commandutils.options.EnumIndex;
+import de.mineking.commandutils.options.Option;
+import de.mineking.javautils.reflection.ReflectionUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SchemaCache {
+	private static final int MAGIC = 0x43555343;
+	private static final int VERSION = 2;
+
+	private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+			"boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+			"int", int.class, "long", long.class, "float", float.class, "double", double.class, "void", void.class
+	);
+
+	private final Map<String, Entry> loaded = new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, Seen> seen = Collections.synchronizedMap(new WeakHashMap<>());
+	private final Map<Class<?>, Long> timings = Collections.synchronizedMap(new WeakHashMap<>());
+	private final Map<Path, Fingerprint> sources = new ConcurrentHashMap<>();
+
+	@NotNull
+	CommandBinder binder(@NotNull Class<?> type) {
+		var state = seen.get(type);
+
+		if(state == null) {
+			synchronized(seen) {
+				seen.keySet().removeIf(c -> c != type && c.getName().equals(type.getName()));
+			}
+
+			var hash = hash(type);
+			var entry = hash == null ? null : loaded.get(type.getName());
+
+			var created = new Seen(hash, entry != null && Arrays.equals(entry.hash(), hash) ? entry : null);
+			var existing = seen.putIfAbsent(type, created);
+			state = existing == null ? created : existing;
+		}
+
+		if(state.entry() != null) {
+			try {
+				return bind(type, state.entry());
+			} catch(ReflectiveOperationException | RuntimeException e) {
+				CommandUtils.INSTANCE.getSLF4JLogger().debug("Ignoring stale schema for {}: {}", type.getName(), e.toString());
+				seen.put(type, new Seen(state.hash(), null));
+			}
+		}
+
+		return CommandBinder.reflective(type);
+	}
+
+	void record(@NotNull Class<?> type, long nanos) {
+		if(seen.containsKey(type)) timings.put(type, nanos);
+	}
+
+	void invalidate(@NotNull Class<?> type) {
+		seen.remove(type);
+		timings.remove(type);
+
+		EnumIndex.unprime(type.getClassLoader());
+	}
+
+	public void clear() {
+		seen.clear();
+		timings.clear();
+		sources.clear();
+
+		EnumIndex.unprimeAll();
+	}
+
+	@NotNull
+	private CommandBinder bind(@NotNull Class<?> type, @NotNull Entry entry) throws ReflectiveOperationException {
+		var loader = type.getClassLoader();
+
+		var method = entry.command() == null ? null : entry.command().resolve(type);
+
+		var autocomplete = new HashMap<String, Method>();
+		for(var e : entry.autocomplete().entrySet()) autocomplete.put(e.getKey(), e.getValue().resolve(type));
+
+		var subcommands = new ArrayList<Class<?>>(entry.subcommands().length);
+		for(var name : entry.subcommands()) subcommands.add(Class.forName(name, false, loader));
+
+		for(var e : entry.enums()) {
+			var enumType = Class.forName(e.type(), false, loader);
+			if(!Arrays.equals(e.hash(), hash(enumType))) continue;
+
+			var constants = new HashMap<String, String>();
+			for(int i = 0; i < e.displays().length; i++) constants.put(e.displays()[i], e.constants()[i]);
+
+			EnumIndex.prime(enumType, constants);
+		}
+
+		var subcommandList = List.copyOf(subcommands);
+		var autocompleteMap = Map.copyOf(autocomplete);
+
+		return new CommandBinder() {
+			@Override
+			public @Nullable Method getCommandMethod() {
+				return method;
+			}
+
+			@Override
+			public @NotNull Map<String, Method> getAutocompleteMethods() {
+				return autocompleteMap;
+			}
+
+			@Override
+			public @NotNull List<Class<?>> getSubcommands() {
+				return subcommandList;
+			}
+		};
+	}
+
+	public int getWarmCount() {
+		synchronized(seen) {
+			return (int) seen.values().stream().filter(s -> s.entry() != null).count();
+		}
+	}
+
+	public int getColdCount() {
+		synchronized(seen) {
+			return seen.size() - getWarmCount();
+		}
+	}
+
+	@NotNull
+	public String getReport() {
+		long warm = 0, previous = 0, cold = 0;
+		int warmCount = 0, coldCount = 0;
+
+		Map<Class<?>, Long> timings;
+		synchronized(this.timings) {
+			timings = new HashMap<>(this.timings);
+		}
+
+		for(var e : timings.entrySet()) {
+			var state = seen.get(e.getKey());
+			if(state == null) continue;
+
+			if(state.entry() != null) {
+				warm += e.getValue();
+				previous += state.entry().bindNanos();
+				warmCount++;
+			} else {
+				cold += e.getValue();
+				coldCount++;
+			}
+		}
+
+		return String.format("Command schema cache: %d warm command(s) bound in %.2f ms (%.2f ms when cold), %d cold command(s) bound in %.2f ms",
+				warmCount, warm / 1e6, previous / 1e6, coldCount, cold / 1e6
+		);
+	}
+
+	public void load(@NotNull Path file) throws IOException {
+		if(!Files.exists(file)) return;
+
+		try(var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if(in.readInt() != MAGIC || in.readInt() != VERSION) return;
+
+			var count = in.readInt();
+			for(int i = 0; i < count; i++) {
+				var entry = Entry.read(in);
+				loaded.put(entry.type(), entry);
+			}
+		}
+	}
+
+	public void save(@NotNull Path file) throws IOException {
+		var entries = new ArrayList<Entry>();
+
+		Map<Class<?>, Seen> seen;
+		synchronized(this.seen) {
+			seen = new HashMap<>(this.seen);
+		}
+
+		for(var e : seen.entrySet()) {
+			var state = e.getValue();
+			if(state.hash() == null) continue;
+
+			if(state.entry() != null) entries.add(state.entry());
+			else {
+				try {
+					entries.add(Entry.create(this, e.getKey(), state.hash(), timings.getOrDefault(e.getKey(), 0L)));
+				} catch(ReflectiveOperationException | RuntimeException ex) {
+					CommandUtils.INSTANCE.getSLF4JLogger().debug("Cannot create schema for {}: {}", e.getKey().getName(), ex.toString());
+				}
+			}
+		}
+
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		var temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try(var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			out.writeInt(entries.size());
+			for(var entry : entries) entry.write(out);
+		}
+
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Nullable
+	private byte[] hash(@NotNull Class<?> type) {
+		var source = source(type);
+		if(source != null && Files.isRegularFile(source)) return fingerprint(source);
+
+		return classHash(type);
+	}
+
+	@Nullable
+	private static Path source(@NotNull Class<?> type) {
+		try {
+			var source = type.getProtectionDomain().getCodeSource();
+			return source == null ? null : Path.of(source.getLocation().toURI());
+		} catch(URISyntaxException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private byte[] fingerprint(@NotNull Path jar) {
+		try {
+			var attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+			var size = attributes.size();
+			var modified = attributes.lastModifiedTime().toMillis();
+
+			var cached = sources.get(jar);
+			if(cached != null && cached.size() == size && cached.modified() == modified) return cached.hash();
+
+			var digest = MessageDigest.getInstance("SHA-256");
+			digest.update(jar.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8));
+			digest.update(ByteBuffer.allocate(16).putLong(size).putLong(modified).array());
+
+			var hash = digest.digest();
+			sources.put(jar, new Fingerprint(size, modified, hash));
+
+			return hash;
+		} catch(IOException | NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private static byte[] classHash(@NotNull Class<?> type) {
+		var loader = type.getClassLoader();
+		if(loader == null) return null;
+
+		try(var in = loader.getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+			if(in == null) return null;
+			return MessageDigest.getInstance("SHA-256").digest(in.readAllBytes());
+		} catch(IOException | NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private static Class<?> enumType(@NotNull Type type) {
+		var clazz = ReflectionUtils.getClass(type);
+
+		if(clazz.isEnum()) return clazz;
+		if(clazz.isArray()) return clazz.getComponentType().isEnum() ? clazz.getComponentType() : null;
+		if(type instanceof ParameterizedType) {
+			var component = ReflectionUtils.getClass(ReflectionUtils.getComponentType(type));
+			return component.isEnum() ? component : null;
+		}
+
+		return null;
+	}
+
+	private record Seen(byte[] hash, Entry entry) {}
+
+	private record Fingerprint(long size, long modified, byte[] hash) {}
+
+	private record Signature(String name, String[] parameters) {
+		static Signature of(Method method) {
+			return new Signature(method.getName(), Arrays.stream(method.getParameterTypes()).map(Class::getName).toArray(String[]::new));
+		}
+
+		Method resolve(Class<?> type) throws ReflectiveOperationException {
+			var types = new Class<?>[parameters.length];
+
+			for(int i = 0; i < parameters.length; i++) {
+				var primitive = PRIMITIVES.get(parameters[i]);
+				types[i] = primitive != null ? primitive : Class.forName(parameters[i], false, type.getClassLoader());
+			}
+
+			return type.getMethod(name, types);
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeUTF(name);
+			out.writeShort(parameters.length);
+			for(var p : parameters) out.writeUTF(p);
+		}
+
+		static Signature read(DataInputStream in) throws IOException {
+			var name = in.readUTF();
+
+			var parameters = new String[in.readUnsignedShort()];
+			for(int i = 0; i < parameters.length; i++) parameters[i] = in.readUTF();
+
+			return new Signature(name, parameters);
+		}
+	}
+
+	private record EnumEntry(String type, byte[] hash, String[] displays, String[] constants) {
+		static EnumEntry of(Class<?> type, byte[] hash) {
+			var index = EnumIndex.of(type);
+			var displays = index.getNames();
+
+			return new EnumEntry(type.getName(), hash, displays, Arrays.stream(displays).map(d -> index.get(d).name()).toArray(String[]::new));
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeUTF(type);
+			writeBytes(out, hash);
+
+			out.writeInt(displays.length);
+			for(int i = 0; i < displays.length; i++) {
+				out.writeUTF(displays[i]);
+				out.writeUTF(constants[i]);
+			}
+		}
+
+		static EnumEntry read(DataInputStream in) throws IOException {
+			var type = in.readUTF();
+			var hash = readBytes(in);
+
+			var count = in.readInt();
+			var displays = new String[count];
+			var constants = new String[count];
+
+			for(int i = 0; i < count; i++) {
+				displays[i] = in.readUTF();
+				constants[i] = in.readUTF();
+			}
+
+			return new EnumEntry(type, hash, displays, constants);
+		}
+	}
+
+	private record Entry(String type, byte[] hash, Signature command, Map<String, Signature> autocomplete, String[] subcommands, EnumEntry[] enums, long bindNanos) {
+		static Entry create(SchemaCache cache, Class<?> type, byte[] hash, long bindNanos) throws ReflectiveOperationException {
+			var binder = CommandBinder.reflective(type);
+			var method = binder.getCommandMethod();
+
+			var autocomplete = new HashMap<String, Signature>();
+			for(var e : binder.getAutocompleteMethods().entrySet()) autocomplete.put(e.getKey(), Signature.of(e.getValue()));
+
+			var subcommands = binder.getSubcommands().stream().map(Class::getName).toArray(String[]::new);
+
+			var enums = new LinkedHashMap<Class<?>, EnumEntry>();
+
+			if(method != null) {
+				var generics = method.getGenericParameterTypes();
+				var params = method.getParameters();
+
+				for(int i = 0; i < params.length; i++) {
+					if(!params[i].isAnnotationPresent(Option.class)) continue;
+
+					var enumType = enumType(generics[i]);
+					if(enumType == null || enums.containsKey(enumType)) continue;
+
+					var enumHash = cache.hash(enumType);
+					if(enumHash != null) enums.put(enumType, EnumEntry.of(enumType, enumHash));
+				}
+			}
+
+			return new Entry(type.getName(), hash, method == null ? null : Signature.of(method), autocomplete, subcommands, enums.values().toArray(EnumEntry[]::new), bindNanos);
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeUTF(type);
+			writeBytes(out, hash);
+			out.writeLong(bindNanos);
+
+			out.writeBoolean(command != null);
+			if(command != null) command.write(out);
+
+			out.writeShort(autocomplete.size());
+			for(var e : autocomplete.entrySet()) {
+				out.writeUTF(e.getKey());
+				e.getValue().write(out);
+			}
+
+			out.writeShort(subcommands.length);
+			for(var s : subcommands) out.writeUTF(s);
+
+			out.writeShort(enums.length);
+			for(var e : enums) e.write(out);
+		}
+
+		static Entry read(DataInputStream in) throws IOException {
+			var type = in.readUTF();
+			var hash = readBytes(in);
+			var bindNanos = in.readLong();
+
+			var command = in.readBoolean() ? Signature.read(in) : null;
+
+			var autocomplete = new HashMap<String, Signature>();
+			var autocompleteCount = in.readUnsignedShort();
+			for(int i = 0; i < autocompleteCount; i++) autocomplete.put(in.readUTF(), Signature.read(in));
+
+			var subcommands = new String[in.readUnsignedShort()];
+			for(int i = 0; i < subcommands.length; i++) subcommands[i] = in.readUTF();
+
+			var enums = new EnumEntry[in.readUnsignedShort()];
+			for(int i = 0; i < enums.length; i++) enums[i] = EnumEntry.read(in);
+
+			return new Entry(type, hash, command, autocomplete, subcommands, enums, bindNanos);
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeByte(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		var bytes = new byte[in.readUnsignedByte()];
+		in.readFully(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,55 @@
+package de.mineking.commandutils;
+
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+final class SenderInstances implements BiFunction<CommandSender, CommandArguments, Object> {
+	private final InstanceFactory factory;
+	private final Map<Object, Object> instances;
+
+	SenderInstances(@NotNull InstanceFactory factory, int maxSize) {
+		this.factory = factory;
+		this.instances = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+				return size() > maxSize;
+			}
+		};
+
+		CommandUtils.INSTANCE.registerSenderScope(this);
+	}
+
+	@NotNull
+	static Object key(@NotNull CommandSender sender) {
+		return sender instanceof Entity e ? e.getUniqueId() : sender.getName();
+	}
+
+	@Override
+	public Object apply(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+		var key = key(sender);
+
+		synchronized(instances) {
+			var instance = instances.get(key);
+			if(instance != null) return instance;
+		}
+
+		var instance = factory.create(sender);
+
+		synchronized(instances) {
+			var existing = instances.putIfAbsent(key, instance);
+			return existing == null ? instance : existing;
+		}
+	}
+
+	void evict(@NotNull Object key) {
+		synchronized(instances) {
+			instances.remove(key);
+		}
+	}
+}
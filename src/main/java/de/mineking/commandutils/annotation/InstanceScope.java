@@ -0,0 +1,7 @@
+package de.mineking.commandutils.annotation;
+
+public enum InstanceScope {
+	SINGLETON,
+	SENDER,
+	INVOCATION
+}
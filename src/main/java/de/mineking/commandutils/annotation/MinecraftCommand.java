@@ -15,4 +15,6 @@ public @interface MinecraftCommand {
 	String[] aliases() default {};
 
 	ExecutorType[] executors() default {ExecutorType.PLAYER};
+
+	boolean async() default false;
 }
@@ -0,0 +1,23 @@
+package de.mineking.commandutils.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RateLimit {
+	int permits() default 1;
+
+	long period();
+
+	TimeUnit unit() default TimeUnit.SECONDS;
+
+	boolean global() default false;
+
+	String message() default "You are using this command too often, please wait a moment";
+
+	int maxEntries() default 4096;
+}
@@ -0,0 +1,51 @@
+package de.mineking.commandutils.metrics;
+
+import dev.jorel.commandapi.executors.ExecutorType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CommandMetrics implements MetricsRecorder {
+	private final Map<Key, CommandStats> executions = new ConcurrentHashMap<>();
+	private final Map<Key, CommandStats> autocomplete = new ConcurrentHashMap<>();
+
+	@Override
+	public void recordExecution(@NotNull String path, @NotNull ExecutorType type, long nanos, boolean failed) {
+		executions.computeIfAbsent(new Key(path, type.name()), k -> new CommandStats()).record(nanos, failed);
+	}
+
+	@Override
+	public void recordAutocomplete(@NotNull String path, @NotNull String option, long nanos, boolean failed) {
+		autocomplete.computeIfAbsent(new Key(path, option), k -> new CommandStats()).record(nanos, failed);
+	}
+
+	@Nullable
+	public CommandStats getExecutionStats(@NotNull String path, @NotNull ExecutorType type) {
+		return executions.get(new Key(path, type.name()));
+	}
+
+	@Nullable
+	public CommandStats getAutocompleteStats(@NotNull String path, @NotNull String option) {
+		return autocomplete.get(new Key(path, option));
+	}
+
+	@NotNull
+	public Map<Key, CommandStats> getExecutionStats() {
+		return Collections.unmodifiableMap(executions);
+	}
+
+	@NotNull
+	public Map<Key, CommandStats> getAutocompleteStats() {
+		return Collections.unmodifiableMap(autocomplete);
+	}
+
+	public void reset() {
+		executions.clear();
+		autocomplete.clear();
+	}
+
+	public record Key(@NotNull String path, @NotNull String name) {}
+}
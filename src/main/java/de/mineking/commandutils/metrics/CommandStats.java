@@ -0,0 +1,43 @@
+package de.mineking.commandutils.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CommandStats {
+	private final LongAdder invocations = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	void record(long nanos, boolean failed) {
+		invocations.increment();
+		if(failed) errors.increment();
+
+		latency.record(nanos);
+	}
+
+	public long getInvocations() {
+		return invocations.sum();
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	public double getErrorRate() {
+		var invocations = getInvocations();
+		return invocations == 0 ? 0 : (double) getErrors() / invocations;
+	}
+
+	@NotNull
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	public void reset() {
+		invocations.reset();
+		errors.reset();
+		latency.reset();
+	}
+}
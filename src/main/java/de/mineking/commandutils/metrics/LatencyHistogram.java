@@ -0,0 +1,80 @@
+package de.mineking.commandutils.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	public void record(long nanos) {
+		if(nanos < 0) nanos = 0;
+
+		buckets.incrementAndGet(index(nanos));
+		count.increment();
+		sum.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	private static int index(long value) {
+		if(value < SUB_BUCKETS) return (int) value;
+
+		var exponent = 63 - Long.numberOfLeadingZeros(value);
+		var mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+	}
+
+	private static long upperBound(int index) {
+		if(index < SUB_BUCKETS) return index;
+
+		var exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		var mantissa = index % SUB_BUCKETS;
+
+		return ((long) (SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMax(TimeUnit unit) {
+		return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+	}
+
+	public double getMean(TimeUnit unit) {
+		var count = getCount();
+		return count == 0 ? 0 : (double) sum.sum() / count / unit.toNanos(1);
+	}
+
+	public long getPercentile(double percentile, TimeUnit unit) {
+		var total = getCount();
+		if(total == 0) return 0;
+
+		var target = (long) Math.ceil(total * percentile / 100);
+		var seen = 0L;
+
+		for(int i = 0; i < buckets.length(); i++) {
+			seen += buckets.get(i);
+			if(seen >= target) return unit.convert(Math.min(upperBound(i), max.get()), TimeUnit.NANOSECONDS);
+		}
+
+		return getMax(unit);
+	}
+
+	public void reset() {
+		for(int i = 0; i < buckets.length(); i++) buckets.set(i, 0);
+
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+}
@@ -0,0 +1,63 @@
+package de.mineking.commandutils.metrics;
+
+import de.mineking.commandutils.Command;
+import de.mineking.commandutils.CommandUtils;
+import dev.jorel.commandapi.arguments.GreedyStringArgument;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsCommand extends Command {
+	public MetricsCommand() {
+		super("metrics");
+
+		this.permission = "commandutils.admin.metrics";
+
+		addOption(new GreedyStringArgument("filter").setOptional(true));
+	}
+
+	@Override
+	public void perform(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+		if(!(CommandUtils.INSTANCE.getMetrics() instanceof CommandMetrics metrics)) {
+			sender.sendMessage("Command metrics are disabled");
+			return;
+		}
+
+		var filter = (String) args.getOrDefault("filter", "");
+
+		sender.sendMessage("Commands:");
+		print(sender, metrics.getExecutionStats(), filter);
+
+		sender.sendMessage("Autocomplete:");
+		print(sender, metrics.getAutocompleteStats(), filter);
+
+		var permissions = CommandUtils.INSTANCE.getPermissionCache();
+		if(permissions != null) sender.sendMessage(String.format("Permission cache: %d entries, %d hits, %d misses, hit rate %.1f%%", permissions.size(), permissions.getHits(), permissions.getMisses(), permissions.getHitRate() * 100));
+	}
+
+	private static void print(CommandSender sender, Map<CommandMetrics.Key, CommandStats> stats, String filter) {
+		List<Map.Entry<CommandMetrics.Key, CommandStats>> entries = stats.entrySet().stream()
+				.filter(e -> e.getKey().path().startsWith(filter))
+				.sorted(Comparator.comparingLong((Map.Entry<CommandMetrics.Key, CommandStats> e) -> e.getValue().getLatency().getPercentile(99, TimeUnit.MICROSECONDS)).reversed())
+				.limit(10)
+				.toList();
+
+		if(entries.isEmpty()) sender.sendMessage("  -");
+
+		for(var e : entries) {
+			var s = e.getValue();
+			var l = s.getLatency();
+
+			sender.sendMessage(String.format("  /%s [%s]: %d calls, %d errors, mean %.1fus, p50 %dus, p99 %dus, max %dus",
+					e.getKey().path(), e.getKey().name().toLowerCase(),
+					s.getInvocations(), s.getErrors(),
+					l.getMean(TimeUnit.MICROSECONDS), l.getPercentile(50, TimeUnit.MICROSECONDS), l.getPercentile(99, TimeUnit.MICROSECONDS), l.getMax(TimeUnit.MICROSECONDS)
+			));
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package de.mineking.commandutils.metrics;
+
+import dev.jorel.commandapi.executors.ExecutorType;
+import org.jetbrains.annotations.NotNull;
+
+public interface MetricsRecorder {
+	void recordExecution(@NotNull String path, @NotNull ExecutorType type, long nanos, boolean failed);
+
+	void recordAutocomplete(@NotNull String path, @NotNull String option, long nanos, boolean failed);
+}
@@ -0,0 +1,80 @@
+package de.mineking.commandutils.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+public final class Trace {
+	private final String path;
+	private final String sender;
+	private final long timestamp = System.currentTimeMillis();
+	private final long start = System.nanoTime();
+	private final boolean sampled;
+
+	private final List<Phase> phases = new ArrayList<>(8);
+
+	private long duration;
+	private boolean failed;
+
+	Trace(@NotNull String path, @NotNull String sender, boolean sampled) {
+		this.path = path;
+		this.sender = sender;
+		this.sampled = sampled;
+	}
+
+	public long record(@NotNull String phase, long since) {
+		var now = System.nanoTime();
+		phases.add(new Phase(phase, now - since));
+		return now;
+	}
+
+	void finish(boolean failed) {
+		this.duration = System.nanoTime() - start;
+		this.failed = failed;
+	}
+
+	@NotNull
+	public String getPath() {
+		return path;
+	}
+
+	@NotNull
+	public String getSender() {
+		return sender;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public long getDuration(@NotNull TimeUnit unit) {
+		return unit.convert(duration, TimeUnit.NANOSECONDS);
+	}
+
+	public boolean isFailed() {
+		return failed;
+	}
+
+	public boolean isSampled() {
+		return sampled;
+	}
+
+	@NotNull
+	public List<Phase> getPhases() {
+		return Collections.unmodifiableList(phases);
+	}
+
+	@Override
+	public String toString() {
+		var joiner = new StringJoiner(", ");
+		for(var p : phases) joiner.add(p.name() + " " + TimeUnit.NANOSECONDS.toMicros(p.nanos()) + "us");
+
+		return "/" + path + " by " + sender + ": " + TimeUnit.NANOSECONDS.toMicros(duration) + "us" + (failed ? " (failed)" : "") + (sampled ? "" : " (slow)") + " [" + joiner + "]";
+	}
+
+	public record Phase(@NotNull String name, long nanos) {}
+}
@@ -0,0 +1,64 @@
+package de.mineking.commandutils.metrics;
+
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class Tracer {
+	private final AtomicReferenceArray<Trace> buffer;
+	private final AtomicLong cursor = new AtomicLong();
+
+	private final double sampleRate;
+	private final long slowThreshold;
+
+	public Tracer(int capacity, double sampleRate, long slowThreshold, @NotNull TimeUnit unit) {
+		if(capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+
+		this.buffer = new AtomicReferenceArray<>(capacity);
+		this.sampleRate = sampleRate;
+		this.slowThreshold = unit.toNanos(slowThreshold);
+	}
+
+	@NotNull
+	public Trace start(@NotNull String path, @NotNull CommandSender sender) {
+		return new Trace(path, sender.getName(), sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+	}
+
+	public void finish(@NotNull Trace trace, boolean failed) {
+		trace.finish(failed);
+		if(!trace.isSampled() && trace.getDuration(TimeUnit.NANOSECONDS) < slowThreshold) return;
+
+		buffer.set((int) (cursor.getAndIncrement() % buffer.length()), trace);
+	}
+
+	@NotNull
+	public List<Trace> getTraces() {
+		var end = cursor.get();
+		var result = new ArrayList<Trace>(buffer.length());
+
+		for(long i = end - 1; i >= 0 && i >= end - buffer.length(); i--) {
+			var trace = buffer.get((int) (i % buffer.length()));
+			if(trace != null) result.add(trace);
+		}
+
+		return result;
+	}
+
+	public void clear() {
+		for(int i = 0; i < buffer.length(); i++) buffer.set(i, null);
+	}
+
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	public long getSlowThreshold(@NotNull TimeUnit unit) {
+		return unit.convert(slowThreshold, TimeUnit.NANOSECONDS);
+	}
+}
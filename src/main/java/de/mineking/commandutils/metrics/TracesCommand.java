@@ -0,0 +1,36 @@
+package de.mineking.commandutils.metrics;
+
+import de.mineking.commandutils.Command;
+import de.mineking.commandutils.CommandUtils;
+import dev.jorel.commandapi.arguments.IntegerArgument;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+public class TracesCommand extends Command {
+	public TracesCommand() {
+		super("traces");
+
+		this.permission = "commandutils.admin.traces";
+
+		addOption(new IntegerArgument("count", 1, 100).setOptional(true));
+	}
+
+	@Override
+	public void perform(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+		var tracer = CommandUtils.INSTANCE.getTracer();
+
+		if(tracer == null) {
+			sender.sendMessage("Command tracing is disabled");
+			return;
+		}
+
+		var traces = tracer.getTraces();
+		var count = Math.min((int) args.getOrDefault("count", 10), traces.size());
+
+		sender.sendMessage("Recent traces (" + count + " of " + traces.size() + "):");
+		if(count == 0) sender.sendMessage("  -");
+
+		for(int i = 0; i < count; i++) sender.sendMessage("  " + traces.get(i));
+	}
+}
@@ -4,9 +4,20 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Autocomplete {
 	String value();
+
+	int limit() default 0;
+
+	long cacheDuration() default 0;
+
+	TimeUnit cacheUnit() default TimeUnit.SECONDS;
+
+	int cacheSize() default 256;
+
+	CacheScope cacheScope() default CacheScope.GLOBAL;
 }
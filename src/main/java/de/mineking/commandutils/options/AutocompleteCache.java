@@ -0,0 +1,108 @@
+package de.mineking.commandutils.options;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AutocompleteCache {
+	private final long duration;
+	private final Map<Key, Entry> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public AutocompleteCache(long duration, @NotNull TimeUnit unit, int maxSize) {
+		this.duration = unit.toNanos(duration);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	@Nullable
+	public Collection<String> get(@Nullable Object scope, @NotNull String prefix) {
+		var now = System.nanoTime();
+
+		Entry entry = null;
+		int length = prefix.length();
+
+		synchronized(entries) {
+			for(; length >= 0; length--) {
+				var key = new Key(scope, prefix.substring(0, length));
+
+				entry = entries.get(key);
+				if(entry == null) continue;
+
+				if(length != prefix.length() && !entry.complete) {
+					entry = null;
+					continue;
+				}
+
+				if(entry.expires - now > 0) break;
+
+				entries.remove(key);
+				entry = null;
+			}
+		}
+
+		if(entry == null) {
+			misses.increment();
+			return null;
+		}
+
+		hits.increment();
+		if(length == prefix.length()) return entry.values;
+
+		return entry.values.stream()
+				.filter(v -> v.regionMatches(true, 0, prefix, 0, prefix.length()))
+				.toList();
+	}
+
+	public void put(@Nullable Object scope, @NotNull String prefix, @NotNull Collection<String> values) {
+		put(scope, prefix, values, true);
+	}
+
+	public void put(@Nullable Object scope, @NotNull String prefix, @NotNull Collection<String> values, boolean complete) {
+		var entry = new Entry(Collections.unmodifiableList(new ArrayList<>(values)), System.nanoTime() + duration, complete);
+
+		synchronized(entries) {
+			entries.put(new Key(scope, prefix), entry);
+		}
+	}
+
+	public void invalidate() {
+		synchronized(entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized(entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public double getHitRate() {
+		var hits = getHits();
+		var total = hits + getMisses();
+
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	private record Key(Object scope, String prefix) {}
+
+	private record Entry(List<String> values, long expires, boolean complete) {}
+}
@@ -0,0 +1,6 @@
+package de.mineking.commandutils.options;
+
+public enum CacheScope {
+	GLOBAL,
+	SENDER
+}
@@ -0,0 +1,11 @@
+package de.mineking.commandutils.options;
+
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+
+public interface DoubleOptionParser extends IOptionParser {
+	double parseDouble(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info, double defaultValue);
+}
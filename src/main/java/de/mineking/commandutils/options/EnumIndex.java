@@ -0,0 +1,105 @@
+package de.mineking.commandutils.options;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class EnumIndex {
+	private static final ClassValue<EnumIndex> indices = new ClassValue<>() {
+		@Override
+		protected EnumIndex computeValue(Class<?> type) {
+			var index = primed.remove(type);
+			return index != null ? index : new EnumIndex(scan(type));
+		}
+	};
+
+	private static final Map<Class<?>, EnumIndex> primed = new ConcurrentHashMap<>();
+
+	private final Map<String, Enum<?>> constants;
+
+	private final String[] keys;
+	private final String[] names;
+
+	@NotNull
+	private static Map<String, Enum<?>> scan(@NotNull Class<?> type) {
+		if(!type.isEnum()) throw new IllegalArgumentException(type.getTypeName() + " is not an enum");
+
+		var constants = new HashMap<String, Enum<?>>();
+
+		for(var e : (Enum<?>[]) type.getEnumConstants()) {
+			EnumConstant info;
+
+			try {
+				info = type.getField(e.name()).getAnnotation(EnumConstant.class);
+			} catch(NoSuchFieldException ex) {
+				throw new IllegalStateException(ex);
+			}
+
+			if(info != null && info.exclude()) continue;
+			constants.put(info == null || info.display().isEmpty() ? e.name() : info.display(), e);
+		}
+
+		return constants;
+	}
+
+	private EnumIndex(@NotNull Map<String, Enum<?>> constants) {
+		this.constants = Map.copyOf(constants);
+
+		this.names = constants.keySet().stream()
+				.sorted(Comparator.comparing((String n) -> n.toLowerCase(Locale.ROOT)))
+				.toArray(String[]::new);
+		this.keys = Arrays.stream(names)
+				.map(n -> n.toLowerCase(Locale.ROOT))
+				.toArray(String[]::new);
+	}
+
+	@NotNull
+	public static EnumIndex of(@NotNull Class<?> type) {
+		return indices.get(type);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public static void prime(@NotNull Class<?> type, @NotNull Map<String, String> constants) {
+		if(!type.isEnum()) throw new IllegalArgumentException(type.getTypeName() + " is not an enum");
+
+		var values = new HashMap<String, Enum<?>>();
+		constants.forEach((display, name) -> values.put(display, Enum.valueOf((Class) type, name)));
+
+		primed.putIfAbsent(type, new EnumIndex(values));
+	}
+
+	public static void unprime(@Nullable ClassLoader loader) {
+		primed.keySet().removeIf(type -> type.getClassLoader() == loader);
+	}
+
+	public static void unprimeAll() {
+		primed.clear();
+	}
+
+	@Nullable
+	public Enum<?> get(@NotNull String name) {
+		return constants.get(name);
+	}
+
+	@NotNull
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	@NotNull
+	public String[] suggest(@NotNull String prefix) {
+		if(prefix.isEmpty()) return names.clone();
+
+		var key = prefix.toLowerCase(Locale.ROOT);
+
+		var start = Arrays.binarySearch(keys, key);
+		if(start < 0) start = -start - 1;
+
+		var end = start;
+		while(end < keys.length && keys[end].startsWith(key)) end++;
+
+		return Arrays.copyOfRange(names, start, end);
+	}
+}
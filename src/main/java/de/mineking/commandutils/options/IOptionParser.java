@@ -3,7 +3,10 @@ package de.mineking.commandutils.options;
 import de.mineking.commandutils.Command;
 import de.mineking.commandutils.CommandUtils;
 import de.mineking.commandutils.annotation.Permission;
+import de.mineking.commandutils.options.defaultValue.BooleanDefault;
 import de.mineking.commandutils.options.defaultValue.EnumDefault;
+import de.mineking.commandutils.options.defaultValue.IntegerDefault;
+import de.mineking.commandutils.options.defaultValue.StringDefault;
 import de.mineking.javautils.reflection.ReflectionUtils;
 import dev.jorel.commandapi.arguments.*;
 import dev.jorel.commandapi.executors.CommandArguments;
@@ -13,10 +16,14 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 public interface IOptionParser {
 	boolean accepts(@NotNull Type type, @NotNull Parameter param);
@@ -28,16 +35,41 @@ public interface IOptionParser {
 	Object parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info);
 
 	default void register(@NotNull Command cmd, @NotNull Type generic, @NotNull Parameter param, @NotNull Option info, @Nullable ArgumentSuggestions<CommandSender> autocomplete) {
-		var option = build(param.getType(), param, info, info.name().isEmpty() ? param.getName() : info.name())
+		var option = build(generic, param, info, info.name().isEmpty() ? param.getName() : info.name())
 				.setOptional(!info.required());
 
 		if(autocomplete != null) option.includeSuggestions(autocomplete);
-		if(param.isAnnotationPresent(Permission.class)) option.withPermission(param.getAnnotation(Permission.class).value());
+		if(param.isAnnotationPresent(Permission.class)) withPermission(option, param.getAnnotation(Permission.class).value());
 
 		cmd.addOption(option);
 	}
 
-	IOptionParser INTEGER = new IOptionParser() {
+	static void withPermission(@NotNull Argument<?> option, @NotNull String permission) {
+		if(CommandUtils.INSTANCE.getPermissionCache() == null) option.withPermission(permission);
+		else option.withRequirement(sender -> CommandUtils.INSTANCE.hasPermission(sender, permission));
+	}
+
+	@Nullable
+	default Object getDefault(@NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
+		var clazz = ReflectionUtils.getClass(type);
+
+		if(param.isAnnotationPresent(IntegerDefault.class)) {
+			var value = param.getAnnotation(IntegerDefault.class).value();
+
+			if(clazz == long.class || clazz == Long.class) return (long) value;
+			if(clazz == double.class || clazz == Double.class) return (double) value;
+			return value;
+		}
+
+		if(param.isAnnotationPresent(StringDefault.class)) return param.getAnnotation(StringDefault.class).value();
+		if(param.isAnnotationPresent(BooleanDefault.class)) return param.getAnnotation(BooleanDefault.class).value();
+
+		return clazz.isPrimitive() ? Array.get(Array.newInstance(clazz, 1), 0) : null;
+	}
+
+	default void invalidate(@NotNull Set<Parameter> params) {}
+
+	IntOptionParser INTEGER = new IntOptionParser() {
 		@Override
 		public boolean accepts(@NotNull Type type, @NotNull Parameter param) {
 			return type.equals(int.class) || type.equals(Integer.class);
@@ -52,9 +84,15 @@ public interface IOptionParser {
 		public @Nullable Integer parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
 			return (Integer) args.get(name);
 		}
+
+		@Override
+		public int parseInt(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info, int defaultValue) {
+			var value = (Integer) args.get(name);
+			return value == null ? defaultValue : value;
+		}
 	};
 
-	IOptionParser DOUBLE = new IOptionParser() {
+	DoubleOptionParser DOUBLE = new DoubleOptionParser() {
 		@Override
 		public boolean accepts(@NotNull Type type, @NotNull Parameter param) {
 			return type.equals(double.class) || type.equals(Double.class);
@@ -69,9 +107,15 @@ public interface IOptionParser {
 		public @Nullable Double parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
 			return (Double) args.get(name);
 		}
+
+		@Override
+		public double parseDouble(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info, double defaultValue) {
+			var value = (Double) args.get(name);
+			return value == null ? defaultValue : value;
+		}
 	};
 
-	IOptionParser LONG = new IOptionParser() {
+	LongOptionParser LONG = new LongOptionParser() {
 		@Override
 		public boolean accepts(@NotNull Type type, @NotNull Parameter param) {
 			return type.equals(long.class) || type.equals(Long.class);
@@ -86,20 +130,64 @@ public interface IOptionParser {
 		public @Nullable Long parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
 			return (Long) args.get(name);
 		}
+
+		@Override
+		public long parseLong(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info, long defaultValue) {
+			var value = (Long) args.get(name);
+			return value == null ? defaultValue : value;
+		}
 	};
 
 	IOptionParser BOOLEAN = new OptionParser(BooleanArgument::new, boolean.class, Boolean.class);
 
 	IOptionParser STRING = new OptionParser(StringArgument::new, String.class);
 
-	IOptionParser OFFLINE_PLAYER = new OptionParser(OfflinePlayerArgument::new, OfflinePlayer.class);
+	IOptionParser OFFLINE_PLAYER = new IOptionParser() {
+		@Override
+		public boolean accepts(@NotNull Type type, @NotNull Parameter param) {
+			return type.equals(OfflinePlayer.class) || ReflectionUtils.getClass(type).equals(CompletableFuture.class) && ReflectionUtils.getComponentType(type).equals(OfflinePlayer.class);
+		}
+
+		@Override
+		public @NotNull Argument<?> build(@NotNull Type type, @NotNull Parameter param, @NotNull Option info, @NotNull String name) {
+			if(type.equals(OfflinePlayer.class)) return new OfflinePlayerArgument(name);
+			return new StringArgument(name).replaceSuggestions(ArgumentSuggestions.stringCollection(ai -> CommandUtils.INSTANCE.getPlayerIndex().suggest(ai.currentArg(), CommandUtils.INSTANCE.getSuggestionLimit())));
+		}
+
+		@Override
+		public @Nullable Object parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
+			if(type.equals(OfflinePlayer.class)) return args.get(name);
+
+			var value = (String) args.get(name);
+			if(value == null) return null;
+
+			var result = new CompletableFuture<OfflinePlayer>();
+
+			CommandUtils.INSTANCE.getPlayerIndex().resolve(value).whenComplete((player, error) -> CommandUtils.INSTANCE.runSync(() -> {
+				if(error != null) result.completeExceptionally(error);
+				else result.complete(player);
+			}));
+
+			return result;
+		}
+
+		@Override
+		public @Nullable Object getDefault(@NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
+			return type.equals(OfflinePlayer.class) ? null : CompletableFuture.completedFuture(null);
+		}
+	};
 
 	IOptionParser PLAYER = new OptionParser(EntitySelectorArgument.OnePlayer::new, Player.class);
 
 	IOptionParser PLAYER_LIST = new IOptionParser() {
 		@Override
 		public boolean accepts(@NotNull Type type, @NotNull Parameter param) {
-			return ReflectionUtils.isArray(type, true) && ReflectionUtils.getComponentType(type).equals(Player.class);
+			var clazz = ReflectionUtils.getClass(type);
+			if(clazz.isArray()) return clazz.getComponentType().equals(Player.class);
+
+			return type instanceof ParameterizedType
+					&& (clazz.equals(Stream.class) || clazz.isAssignableFrom(List.class) || clazz.isAssignableFrom(Set.class))
+					&& ReflectionUtils.getComponentType(type).equals(Player.class);
 		}
 
 		@Override
@@ -108,19 +196,21 @@ public interface IOptionParser {
 		}
 
 		@Override
+		@SuppressWarnings("unchecked")
 		public @Nullable Object parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
-			var array = (Collection<Player>) args.get(name);
+			var players = (Collection<Player>) args.get(name);
+			if(players == null) return null;
 
-			if(array == null) return null;
+			var clazz = ReflectionUtils.getClass(type);
 
-			return ReflectionUtils.isArray(type, false)
-					? array.toArray(i -> ReflectionUtils.createArray(Player.class, i))
-					: createCollection(ReflectionUtils.getClass(type), array);
-		}
+			if(clazz.isArray()) return players.toArray(Player[]::new);
+			if(clazz.equals(Stream.class)) return players.stream();
+			if(players instanceof List<Player> list && clazz.isAssignableFrom(List.class)) return Collections.unmodifiableList(list);
+			if(players instanceof Set<Player> set && clazz.isAssignableFrom(Set.class)) return Collections.unmodifiableSet(set);
+			if(clazz.isAssignableFrom(Collection.class)) return Collections.unmodifiableCollection(players);
 
-		private <C> Collection<C> createCollection(Class<?> type, Collection<C> array) {
-			if(type.isAssignableFrom(List.class)) return new ArrayList<>(array);
-			else if(type.isAssignableFrom(Set.class)) return new HashSet<>(array);
+			if(clazz.isAssignableFrom(List.class)) return new ArrayList<>(players);
+			if(clazz.isAssignableFrom(Set.class)) return new HashSet<>(players);
 
 			throw new IllegalStateException("Cannot create player collection for " + type.getTypeName());
 		}
@@ -130,7 +220,7 @@ public interface IOptionParser {
 	IOptionParser OPTIONAL = new IOptionParser() {
 		@Override
 		public boolean accepts(@NotNull Type type, @NotNull Parameter param) {
-			return type.equals(Optional.class);
+			return ReflectionUtils.getClass(type).equals(Optional.class);
 		}
 
 		@Override
@@ -139,8 +229,15 @@ public interface IOptionParser {
 		}
 
 		@Override
-		public @NotNull Optional<?> parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
-			return Optional.ofNullable(CommandUtils.INSTANCE.parseArgument(args, name, ReflectionUtils.getComponentType(type), param, info));
+		public @Nullable Optional<?> parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
+			var value = CommandUtils.INSTANCE.parseArgument(args, name, ReflectionUtils.getComponentType(type), param, info);
+			return value == null ? null : Optional.of(value);
+		}
+
+		@Override
+		public @NotNull Optional<?> getDefault(@NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
+			var component = ReflectionUtils.getComponentType(type);
+			return Optional.ofNullable(CommandUtils.INSTANCE.findParser(component, param).getDefault(component, param, info));
 		}
 	};
 
@@ -152,40 +249,37 @@ public interface IOptionParser {
 
 		@Override
 		public @NotNull Argument<String> build(@NotNull Type type, @NotNull Parameter param, @NotNull Option info, @NotNull String name) {
-			var clazz = ReflectionUtils.getClass(type);
-
-			return new StringArgument(name).includeSuggestions(ArgumentSuggestions.strings(
-					Arrays.stream((Enum<?>[]) clazz.getEnumConstants())
-							.map(e -> {
-								try {
-									var f = clazz.getField(e.name()).getAnnotation(EnumConstant.class);
-									if(f == null) return e.name();
-
-									if(f.exclude()) return null;
-									return f.display().isEmpty() ? e.name() : f.display();
-								} catch(NoSuchFieldException ex) {
-									throw new RuntimeException(ex);
-								}
-							})
-							.filter(Objects::nonNull)
-							.toList()
-			));
+			var index = EnumIndex.of(ReflectionUtils.getClass(type));
+			return new StringArgument(name).includeSuggestions(ArgumentSuggestions.strings(ai -> index.suggest(ai.currentArg())));
 		}
 
 		@Override
 		public @Nullable Enum<?> parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
-			if(args.get(name) == null) return null;
+			var value = (String) args.get(name);
+			return value == null ? null : EnumIndex.of(ReflectionUtils.getClass(type)).get(value);
+		}
 
-			return ReflectionUtils.getEnumConstant(type, (String) args.get(name)).orElseGet(() -> {
-				var def = param.getAnnotation(EnumDefault.class);
-				if(def == null) return null;
+		@Override
+		public @Nullable Enum<?> getDefault(@NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
+			var def = param.getAnnotation(EnumDefault.class);
+			if(def == null) return null;
 
-				return def.value().isEmpty() ? (Enum<?>) ReflectionUtils.getClass(type).getEnumConstants()[0] : ReflectionUtils.getEnumConstant(type, def.value()).orElse(null);
-			});
+			var clazz = ReflectionUtils.getClass(type);
+			var value = def.value().isEmpty() ? (Enum<?>) clazz.getEnumConstants()[0] : EnumIndex.of(clazz).get(def.value());
+			if(value == null) throw new IllegalStateException("Unknown @EnumDefault '" + def.value() + "' for " + clazz.getName());
+
+			return value;
 		}
 	};
 
 	IOptionParser ARRAY = new IOptionParser() {
+		private final Map<Parameter, String[]> slots = new ConcurrentHashMap<>();
+
+		@Override
+		public void invalidate(@NotNull Set<Parameter> params) {
+			slots.keySet().removeAll(params);
+		}
+
 		@Override
 		public boolean accepts(@NotNull Type type, @NotNull Parameter param) {
 			return ReflectionUtils.isArray(type, true);
@@ -199,29 +293,36 @@ public interface IOptionParser {
 		@Override
 		public @Nullable Object parse(@NotNull CommandArguments args, @NotNull String name, @NotNull Type type, @NotNull Parameter param, @NotNull Option info) {
 			var component = ReflectionUtils.getComponentType(type);
+			var componentClass = ReflectionUtils.getClass(component);
 
-			var array = args.argsMap().keySet().stream()
-					.filter(o -> o.matches(Matcher.quoteReplacement(name) + "\\d+"))
-					.map(o -> CommandUtils.INSTANCE.parseArgument(args, o, component, param, info))
-					.toList();
+			var keys = slots.get(param);
+			if(keys == null) keys = new String[] {name};
 
-			return ReflectionUtils.isArray(type, false)
-					? array.toArray(i -> ReflectionUtils.createArray(component, i))
-					: createCollection(ReflectionUtils.getClass(type), ReflectionUtils.getClass(component), array);
-		}
+			var values = args.argsMap();
 
-		@SuppressWarnings("unchecked")
-		private <C> Collection<C> createCollection(Class<?> type, Class<?> component, List<C> array) {
-			if(type.isAssignableFrom(List.class)) return new ArrayList<>(array);
-			else if(type.isAssignableFrom(Set.class)) return new HashSet<>(array);
-			else if(type.isAssignableFrom(EnumSet.class)) return (Collection<C>) createEnumSet(array, component);
+			int count = 0;
+			while(count < keys.length && values.containsKey(keys[count])) count++;
 
-			throw new IllegalStateException("Cannot create collection for " + type.getTypeName() + " with component " + component.getTypeName());
+			var parser = CommandUtils.INSTANCE.findParser(component, param);
+
+			if(ReflectionUtils.isArray(type, false)) {
+				var array = Array.newInstance(componentClass, count);
+				for(int i = 0; i < count; i++) Array.set(array, i, parser.parse(args, keys[i], component, param, info));
+				return array;
+			}
+
+			var collection = createCollection(ReflectionUtils.getClass(type), componentClass, count);
+			for(int i = 0; i < count; i++) collection.add(parser.parse(args, keys[i], component, param, info));
+			return collection;
 		}
 
-		@SuppressWarnings("unchecked")
-		private <E extends Enum<E>> EnumSet<E> createEnumSet(Collection<?> collection, Class<?> component) {
-			return collection.isEmpty() ? EnumSet.noneOf((Class<E>) component) : EnumSet.copyOf((Collection<E>) collection);
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Collection<Object> createCollection(Class<?> type, Class<?> component, int size) {
+			if(type.isAssignableFrom(List.class)) return new ArrayList<>(size);
+			else if(type.isAssignableFrom(Set.class)) return new HashSet<>(Math.max(16, size * 4 / 3 + 1));
+			else if(type.isAssignableFrom(EnumSet.class)) return (Collection) EnumSet.noneOf((Class) component);
+
+			throw new IllegalStateException("Cannot create collection for " + type.getTypeName() + " with component " + component.getTypeName());
 		}
 
 		@Override
@@ -229,13 +330,21 @@ public interface IOptionParser {
 			var oa = param.getAnnotation(OptionArray.class);
 
 			var permission = param.isAnnotationPresent(Permission.class) ? param.getAnnotation(Permission.class).value() : null;
+			var name = info.name().isEmpty() ? param.getName() : info.name();
+
+			if(oa == null) {
+				slots.put(param, new String[] {name});
+				IOptionParser.super.register(cmd, type, param, info, autocomplete);
+			} else {
+				var keys = new String[oa.maxCount()];
+				for(int i = 0; i < keys.length; i++) keys[i] = name + (i + 1);
+
+				slots.put(param, keys);
 
-			if(oa == null) IOptionParser.super.register(cmd, type, param, info, autocomplete);
-			else {
 				for(int i = 1; i <= oa.maxCount(); i++) {
-					var o = build(param.getType(), param, info, info.name().isEmpty() ? param.getName() : info.name());
+					var o = build(type, param, info, keys[i - 1]);
 
-					if(permission != null) o.withPermission(permission);
+					if(permission != null) withPermission(o, permission);
 					if(autocomplete != null) o.includeSuggestions(autocomplete);
 
 					if(i > oa.minCount()) o.setOptional(true);
@@ -0,0 +1,206 @@
+package de.mineking.commandutils.profile;
+
+import de.mineking.commandutils.CommandUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+public class PlayerIndex {
+	private final NavigableMap<String, Profile> profiles = new ConcurrentSkipListMap<>();
+	private final Map<UUID, OfflinePlayer> players;
+	private final Map<String, CompletableFuture<OfflinePlayer>> pending = new ConcurrentHashMap<>();
+	private final Map<String, Long> unknown = new ConcurrentHashMap<>();
+
+	private final int cacheSize;
+	private final long unknownTtl;
+
+	private volatile ProfileLookup lookup;
+	private volatile boolean dirty;
+
+	public PlayerIndex(@NotNull ProfileLookup lookup, int cacheSize, long unknownTtl, @NotNull TimeUnit unit) {
+		this.lookup = lookup;
+		this.cacheSize = cacheSize;
+		this.unknownTtl = unit.toNanos(unknownTtl);
+		this.players = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<UUID, OfflinePlayer> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	public PlayerIndex(@NotNull ProfileLookup lookup, int cacheSize) {
+		this(lookup, cacheSize, 1, TimeUnit.MINUTES);
+	}
+
+	@NotNull
+	private static String key(@NotNull String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	public void setLookup(@NotNull ProfileLookup lookup) {
+		this.lookup = lookup;
+	}
+
+	public void record(@NotNull UUID id, @NotNull String name) {
+		var profile = new Profile(id, name);
+		unknown.remove(key(name));
+
+		if(!profile.equals(profiles.put(key(name), profile))) dirty = true;
+	}
+
+	@Nullable
+	public UUID getId(@NotNull String name) {
+		var profile = profiles.get(key(name));
+		return profile == null ? null : profile.id();
+	}
+
+	@Nullable
+	public OfflinePlayer getIfCached(@NotNull String name) {
+		var profile = profiles.get(key(name));
+
+		if(profile != null) return get(profile.id());
+		if(isUnknown(name)) return null;
+
+		var player = Bukkit.getOfflinePlayerIfCached(name);
+		if(player == null) {
+			resolve(name);
+			return null;
+		}
+
+		record(player.getUniqueId(), player.getName() == null ? name : player.getName());
+		return player;
+	}
+
+	@NotNull
+	public CompletableFuture<OfflinePlayer> resolve(@NotNull String name) {
+		var profile = profiles.get(key(name));
+		if(profile != null) return CompletableFuture.completedFuture(get(profile.id()));
+
+		var key = key(name);
+		if(isUnknown(name)) return CompletableFuture.completedFuture(null);
+
+		var future = pending.get(key);
+		if(future != null) return future;
+
+		var created = new CompletableFuture<OfflinePlayer>();
+
+		future = pending.putIfAbsent(key, created);
+		if(future != null) return future;
+
+		try {
+			CommandUtils.INSTANCE.getCommandExecutor().execute(() -> {
+				try {
+					var result = lookup.lookup(name);
+					if(result != null) record(result.id(), result.name());
+					else markUnknown(key);
+
+					created.complete(result == null ? null : get(result.id()));
+				} catch(Throwable e) {
+					created.completeExceptionally(e);
+				} finally {
+					pending.remove(key, created);
+				}
+			});
+		} catch(RuntimeException e) {
+			pending.remove(key, created);
+			created.completeExceptionally(e);
+		}
+
+		return created;
+	}
+
+	public boolean isUnknown(@NotNull String name) {
+		var expiry = unknown.get(key(name));
+		if(expiry == null) return false;
+		if(System.nanoTime() - expiry < 0) return true;
+
+		unknown.remove(key(name), expiry);
+		return false;
+	}
+
+	private void markUnknown(@NotNull String key) {
+		var now = System.nanoTime();
+		if(unknown.size() >= cacheSize) unknown.values().removeIf(expiry -> now - expiry >= 0);
+
+		var it = unknown.keySet().iterator();
+		while(unknown.size() >= cacheSize && it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+
+		unknown.put(key, now + unknownTtl);
+	}
+
+	@NotNull
+	private OfflinePlayer get(@NotNull UUID id) {
+		synchronized(players) {
+			return players.computeIfAbsent(id, Bukkit::getOfflinePlayer);
+		}
+	}
+
+	@NotNull
+	public List<String> suggest(@NotNull String prefix, int limit) {
+		var key = key(prefix);
+
+		return profiles.subMap(key, true, key + Character.MAX_VALUE, true).values().stream()
+				.limit(limit)
+				.map(Profile::name)
+				.toList();
+	}
+
+	public int size() {
+		return profiles.size();
+	}
+
+	public void seed(@NotNull OfflinePlayer[] players) {
+		for(var player : players) {
+			var name = player.getName();
+			if(name != null) record(player.getUniqueId(), name);
+		}
+	}
+
+	public void load(@NotNull Path file) throws IOException {
+		if(!Files.exists(file)) return;
+
+		for(var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			var parts = line.split(" ", 2);
+			if(parts.length != 2) continue;
+
+			try {
+				profiles.put(key(parts[1]), new Profile(UUID.fromString(parts[0]), parts[1]));
+			} catch(IllegalArgumentException ignored) {}
+		}
+	}
+
+	public void save(@NotNull Path file) throws IOException {
+		if(!dirty) return;
+		dirty = false;
+
+		var lines = profiles.values().stream()
+				.map(p -> p.id() + " " + p.name())
+				.toList();
+
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		try {
+			var temp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.write(temp, lines, StandardCharsets.UTF_8);
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(IOException e) {
+			dirty = true;
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,7 @@
+package de.mineking.commandutils.profile;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+public record Profile(@NotNull UUID id, @NotNull String name) {}
@@ -0,0 +1,32 @@
+package de.mineking.commandutils.profile;
+
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@FunctionalInterface
+public interface ProfileLookup {
+	@Nullable
+	Profile lookup(@NotNull String name) throws Exception;
+
+	@NotNull
+	static ProfileLookup server() {
+		return name -> {
+			var profile = Bukkit.createProfile(name);
+			if(!profile.complete(false) || profile.getId() == null) return null;
+
+			return new Profile(profile.getId(), profile.getName() == null ? name : profile.getName());
+		};
+	}
+
+	@NotNull
+	static ProfileLookup of(@NotNull Map<String, UUID> profiles) {
+		var index = profiles.entrySet().stream().collect(Collectors.toMap(e -> e.getKey().toLowerCase(Locale.ROOT), e -> new Profile(e.getValue(), e.getKey())));
+		return name -> index.get(name.toLowerCase(Locale.ROOT));
+	}
+}